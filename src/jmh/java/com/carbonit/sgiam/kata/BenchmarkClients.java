@@ -0,0 +1,58 @@
+package com.carbonit.sgiam.kata;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+
+/**
+ * Http client of the load benchmarks, it trusts the self signed certificate of the application.
+ */
+public final class BenchmarkClients {
+
+    static {
+        System.setProperty("jdk.internal.httpclient.disableHostnameVerification", "true");
+    }
+
+    private BenchmarkClients() {
+    }
+
+    public static HttpClient https() throws GeneralSecurityException {
+        return https(HttpClient.Version.HTTP_1_1);
+    }
+
+    /**
+     * An http/2 client negotiates the protocol with ALPN and sends its concurrent requests over a single connection.
+     */
+    public static HttpClient https(final HttpClient.Version version) throws GeneralSecurityException {
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, new TrustManager[] { new X509TrustManager() {
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+        } }, null);
+        return HttpClient.newBuilder()
+            .version(version)
+            .sslContext(sslContext)
+            .build();
+    }
+
+    /**
+     * @return the status of the response, its body is discarded
+     */
+    public static int get(final HttpClient client, final URI uri) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,35 @@
+package com.carbonit.sgiam.kata;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the application, without its web server by default, against a private in-memory H2 database.
+ */
+public final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    public static ConfigurableApplicationContext start(final String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    public static ConfigurableApplicationContext start(final WebApplicationType type, final String... properties) {
+        List<String> allProperties = new ArrayList<>(Arrays.asList(
+            "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+            "logging.level.root=WARN"
+        ));
+        allProperties.addAll(Arrays.asList(properties));
+        return new SpringApplicationBuilder(Application.class)
+            .web(type)
+            .properties(allProperties.toArray(new String[0]))
+            .run();
+    }
+}
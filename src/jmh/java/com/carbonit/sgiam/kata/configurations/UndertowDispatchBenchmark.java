@@ -0,0 +1,89 @@
+package com.carbonit.sgiam.kata.configurations;
+
+import com.carbonit.sgiam.kata.Application;
+import com.carbonit.sgiam.kata.BenchmarkClients;
+import com.carbonit.sgiam.kata.repositories.UsersRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.security.GeneralSecurityException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pages through the users over https at a concurrency well above the worker pool size, every repository call being
+ * delayed by {@link #LATENCY_MS} to stand for a slow database. The sample time mode reports the p99 latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(UndertowDispatchBenchmark.CONCURRENCY)
+@Fork(1)
+public class UndertowDispatchBenchmark {
+
+    static final int CONCURRENCY = 256;
+    private static final int WORKER_THREADS = 32;
+    private static final long LATENCY_MS = 20;
+    private static final int HTTPS_PORT = 18443;
+    private static final int HTTP_PORT = 18080;
+
+    @Param({"worker", "virtual-threads"})
+    public String dispatchMode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI pageUri;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        context = new SpringApplicationBuilder(Application.class)
+            .initializers(applicationContext -> applicationContext.getBeanFactory().addBeanPostProcessor(slowRepository()))
+            .properties(
+                "server.port=" + HTTPS_PORT,
+                "server.http.port=" + HTTP_PORT,
+                "server.undertow.threads.worker=" + WORKER_THREADS,
+                "server.undertow.dispatch-mode=" + dispatchMode,
+                "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "logging.level.root=WARN")
+            .run();
+        client = BenchmarkClients.https();
+        pageUri = URI.create("https://localhost:" + HTTPS_PORT + "/api/v1/users/filter?page=0&size=10");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int filterUsers() throws IOException, InterruptedException {
+        return BenchmarkClients.get(client, pageUri);
+    }
+
+    private static BeanPostProcessor slowRepository() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof UsersRepository)) return bean;
+                return Proxy.newProxyInstance(UsersRepository.class.getClassLoader(), new Class<?>[] { UsersRepository.class },
+                    (proxy, method, args) -> {
+                        if (method.getDeclaringClass() != Object.class) Thread.sleep(LATENCY_MS);
+                        try {
+                            return method.invoke(bean, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.carbonit.sgiam.kata.controllers;
+
+import com.carbonit.sgiam.kata.dtos.ErrorResponseDTO;
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import com.carbonit.sgiam.kata.exceptions.UserNotFoundException;
+import com.carbonit.sgiam.kata.utils.Uuids;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_UUID;
+
+/**
+ * Cost of turning an invalid or unknown id into its error body, a few frames below the controller as in a request.
+ * The legacy path throws from UUID.fromString, fills the stack traces and serializes a fresh error DTO, the current
+ * one parses without throwing, uses stackless exceptions and pre-serialized bodies. Run with -prof gc for the
+ * allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    private static final String INVALID_ID = "invalid_id";
+    private static final String UNKNOWN_ID = "c182c9ba-304c-4290-8be5-1cf46045b474";
+    private static final int DEPTH = 60;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Benchmark
+    public byte[] legacyBadRequest() throws JsonProcessingException {
+        try {
+            return deep(DEPTH, () -> {
+                try {
+                    return UUID.fromString(INVALID_ID);
+                } catch (IllegalArgumentException e) {
+                    throw new LegacyException(String.format(INVALID_UUID.getMessageTemplate(), INVALID_ID));
+                }
+            }).toString().getBytes();
+        } catch (LegacyException e) {
+            return serialize(HttpStatus.BAD_REQUEST, e);
+        }
+    }
+
+    @Benchmark
+    public byte[] badRequest() {
+        try {
+            return deep(DEPTH, () -> {
+                UUID id = Uuids.parse(INVALID_ID);
+                if (id == null) throw new ParameterNotValidException(INVALID_UUID, INVALID_ID);
+                return id;
+            }).toString().getBytes();
+        } catch (ParameterNotValidException e) {
+            return ErrorBodies.badRequest(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] legacyNotFound() throws JsonProcessingException {
+        try {
+            return deep(DEPTH, () -> {
+                throw new LegacyException(String.format(UserNotFoundException.USER_NOT_FOUND_MSG, UUID.fromString(UNKNOWN_ID)));
+            }).toString().getBytes();
+        } catch (LegacyException e) {
+            return serialize(HttpStatus.NOT_FOUND, e);
+        }
+    }
+
+    @Benchmark
+    public byte[] notFound() {
+        try {
+            return deep(DEPTH, () -> {
+                throw new UserNotFoundException(Uuids.parse(UNKNOWN_ID).toString());
+            }).toString().getBytes();
+        } catch (UserNotFoundException e) {
+            return ErrorBodies.notFound(e);
+        }
+    }
+
+    private byte[] serialize(final HttpStatus status, final RuntimeException e) throws JsonProcessingException {
+        ErrorResponseDTO error = new ErrorResponseDTO();
+        error.setCode(status.toString());
+        error.setMessage(e.getLocalizedMessage());
+        return objectMapper.writeValueAsBytes(error);
+    }
+
+    /**
+     * Runs the call below as many frames as a request goes through filters, dispatcher and proxies
+     */
+    private static UUID deep(final int depth, final Supplier<UUID> call) {
+        return depth == 0 ? call.get() : deep(depth - 1, call);
+    }
+
+    /**
+     * The exceptions as they were, with a stack trace
+     */
+    private static final class LegacyException extends RuntimeException {
+        LegacyException(final String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.carbonit.sgiam.kata.controllers;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import com.carbonit.sgiam.kata.services.UsersService;
+import com.carbonit.sgiam.kata.validation.NameValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the id handling done by the controller before reaching the service, which is stubbed out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UsersControllerBenchmark {
+
+    private static final String VALID_ID = "eed93d8f-e053-4d75-af63-060f1f8f92d7";
+    private static final String INVALID_ID = "invalid_id";
+
+    private UsersController controller;
+
+    @Setup
+    public void setUp() {
+        UserDTO user = new UserDTO();
+        user.setId(UUID.fromString(VALID_ID));
+        user.setName("user_name");
+        UsersService service = (UsersService) Proxy.newProxyInstance(UsersService.class.getClassLoader(),
+            new Class<?>[]{UsersService.class}, (proxy, method, args) -> user);
+        controller = new UsersController(service, new ObjectMapper(), new NameValidator(new ClassPathResource("reserved-names.txt")), 1000, 100);
+    }
+
+    @Benchmark
+    public ResponseEntity<UserDTO> getUserByValidId() {
+        return controller.getUserById(VALID_ID, new ServletWebRequest(new MockHttpServletRequest()));
+    }
+
+    @Benchmark
+    public Object getUserByInvalidId() {
+        try {
+            return controller.getUserById(INVALID_ID, new ServletWebRequest(new MockHttpServletRequest()));
+        } catch (ParameterNotValidException e) {
+            return e;
+        }
+    }
+}
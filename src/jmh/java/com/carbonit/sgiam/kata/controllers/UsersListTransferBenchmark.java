@@ -0,0 +1,83 @@
+package com.carbonit.sgiam.kata.controllers;
+
+import com.carbonit.sgiam.kata.BenchmarkClients;
+import com.carbonit.sgiam.kata.BenchmarkContexts;
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.services.UsersService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lists {@link #USERS} users over https at a fixed concurrency, for each protocol and content encoding. The http/1.1
+ * client needs a connection per concurrent request where the http/2 one multiplexes them over a single connection.
+ * The bytes on the wire of one listing are printed on set up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(UsersListTransferBenchmark.CONCURRENCY)
+@Fork(1)
+public class UsersListTransferBenchmark {
+
+    static final int CONCURRENCY = 64;
+    private static final int USERS = 1000;
+    private static final int HTTPS_PORT = 18443;
+    private static final int HTTP_PORT = 18080;
+
+    @Param({"HTTP_1_1", "HTTP_2"})
+    public String protocol;
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException, IOException, InterruptedException {
+        context = BenchmarkContexts.start(WebApplicationType.SERVLET,
+            "server.port=" + HTTPS_PORT,
+            "server.http.port=" + HTTP_PORT,
+            "server.http2.enabled=true",
+            "server.compression.enabled=true");
+        List<UserDTO> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            UserDTO user = new UserDTO();
+            user.setName("user_" + i);
+            users.add(user);
+        }
+        context.getBean(UsersService.class).createUsers(users);
+
+        client = BenchmarkClients.https(HttpClient.Version.valueOf(protocol));
+        request = HttpRequest.newBuilder(URI.create("https://localhost:" + HTTPS_PORT + "/api/v1/users"))
+            .header("Accept-Encoding", encoding)
+            .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        System.out.printf("%n%s %s: %d bytes on the wire for %d users%n", response.version(),
+            response.headers().firstValue("Content-Encoding").orElse("identity"), response.body().length, USERS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getAllUsers() throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
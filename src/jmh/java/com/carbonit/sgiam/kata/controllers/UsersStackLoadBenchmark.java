@@ -0,0 +1,109 @@
+package com.carbonit.sgiam.kata.controllers;
+
+import com.carbonit.sgiam.kata.Application;
+import com.carbonit.sgiam.kata.BenchmarkClients;
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.services.ReactiveUsersService;
+import com.carbonit.sgiam.kata.services.UsersService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.security.GeneralSecurityException;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Serves {@code GET /api/v1/users/{id}} over https with the servlet or the reactive stack at a fixed concurrency, and
+ * reports on tear down the peak number of live threads of the JVM and of database connections in use.
+ * The JVM threads include the {@link #CONCURRENCY} client threads. The embedded H2 drivers run their statements on
+ * the calling thread, point both urls to MariaDB to compare the stacks against a database with real latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(UsersStackLoadBenchmark.CONCURRENCY)
+@Fork(1)
+public class UsersStackLoadBenchmark {
+
+    static final int CONCURRENCY = 64;
+    private static final int HTTPS_PORT = 18443;
+    private static final int HTTP_PORT = 18080;
+
+    @Param({"servlet", "reactive"})
+    public String stack;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final AtomicInteger peakConnections = new AtomicInteger();
+    private ConfigurableApplicationContext context;
+    private ScheduledExecutorService sampler;
+    private HttpClient client;
+    private URI userUri;
+    private int threadsAtRest;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        String database = UUID.randomUUID().toString();
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Application.class)
+            .properties(
+                "server.port=" + HTTPS_PORT,
+                "server.http.port=" + HTTP_PORT,
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.url=r2dbc:h2:mem:///" + database + "?options=DB_CLOSE_DELAY=-1",
+                "logging.level.root=WARN");
+        UserDTO user = new UserDTO();
+        user.setName("user_name");
+        IntSupplier activeConnections;
+        if ("reactive".equals(stack)) {
+            context = builder.web(WebApplicationType.REACTIVE).profiles("reactive").run();
+            user = context.getBean(ReactiveUsersService.class).createUser(user).block();
+            ConnectionFactory connectionFactory = context.getBean(ConnectionFactory.class);
+            activeConnections = () -> connectionFactory instanceof ConnectionPool
+                ? ((ConnectionPool) connectionFactory).getMetrics().map(PoolMetrics::acquiredSize).orElse(0)
+                : 0;
+        } else {
+            context = builder.web(WebApplicationType.SERVLET).run();
+            user = context.getBean(UsersService.class).createUser(user);
+            HikariDataSource dataSource = context.getBean(DataSource.class).unwrap(HikariDataSource.class);
+            activeConnections = () -> dataSource.getHikariPoolMXBean().getActiveConnections();
+        }
+        userUri = URI.create("https://localhost:" + HTTPS_PORT + "/api/v1/users/" + user.getId());
+        client = BenchmarkClients.https();
+
+        threadsAtRest = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+        sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakConnections.accumulateAndGet(activeConnections.getAsInt(), Math::max),
+            0, 1, TimeUnit.MILLISECONDS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        sampler.shutdownNow();
+        System.out.printf("%n%s stack at %d concurrent requests: %d threads at rest, %d peak threads, %d peak db connections%n",
+            stack, CONCURRENCY, threadsAtRest, threads.getPeakThreadCount(), peakConnections.get());
+        context.close();
+    }
+
+    @Benchmark
+    public int getUserById() throws IOException, InterruptedException {
+        return BenchmarkClients.get(client, userUri);
+    }
+}
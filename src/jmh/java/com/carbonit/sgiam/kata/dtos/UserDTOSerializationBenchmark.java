@@ -0,0 +1,88 @@
+package com.carbonit.sgiam.kata.dtos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization and parsing of a single user and of users lists in each negotiated format. The payload sizes are
+ * printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDTOSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int listSize;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectWriter userWriter;
+    private ObjectWriter listWriter;
+    private ObjectReader userReader;
+    private ObjectReader listReader;
+    private UserDTO user;
+    private UserDTO[] users;
+    private byte[] userPayload;
+    private byte[] listPayload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = switch (format) {
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> new ObjectMapper();
+        };
+        userWriter = mapper.writerFor(UserDTO.class);
+        listWriter = mapper.writerFor(UserDTO[].class);
+        userReader = mapper.readerFor(UserDTO.class);
+        listReader = mapper.readerFor(UserDTO[].class);
+        List<UserDTO> list = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            UserDTO listUser = new UserDTO();
+            listUser.setId(UUID.randomUUID());
+            listUser.setName("user_" + i);
+            list.add(listUser);
+        }
+        user = list.get(0);
+        users = list.toArray(new UserDTO[0]);
+        userPayload = userWriter.writeValueAsBytes(user);
+        listPayload = listWriter.writeValueAsBytes(users);
+        System.out.printf("%n%s payload: %d bytes per user, %d bytes per list of %d%n",
+            format, userPayload.length, listPayload.length, listSize);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws IOException {
+        return userWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public UserDTO parseUser() throws IOException {
+        return userReader.readValue(userPayload);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws IOException {
+        return listWriter.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public UserDTO[] parseList() throws IOException {
+        return listReader.readValue(listPayload);
+    }
+}
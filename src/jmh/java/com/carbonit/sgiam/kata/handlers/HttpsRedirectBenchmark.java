@@ -0,0 +1,92 @@
+package com.carbonit.sgiam.kata.handlers;
+
+import com.carbonit.sgiam.kata.Application;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redirects per second on the http listener, by the {@link HttpsRedirectHandler} on the IO thread against the servlet
+ * filter it replaced, which ran at the head of the filter chain on a worker thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(HttpsRedirectBenchmark.CONCURRENCY)
+@Fork(1)
+public class HttpsRedirectBenchmark {
+
+    static final int CONCURRENCY = 32;
+    private static final int HTTPS_PORT = 18443;
+    private static final int HTTP_PORT = 18080;
+
+    @Param({"servlet-filter", "io-handler"})
+    public String redirect;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        boolean servletFilter = "servlet-filter".equals(redirect);
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Application.class)
+            .properties(
+                "server.port=" + HTTPS_PORT,
+                "server.http.port=" + HTTP_PORT,
+                "server.http.redirect.enabled=" + !servletFilter,
+                "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "logging.level.root=WARN");
+        if (servletFilter) {
+            builder.initializers(applicationContext -> applicationContext.getBeanFactory()
+                .registerSingleton("redirectToHttpsFilter", servletRedirect()));
+        }
+        context = builder.run();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + HTTP_PORT + "/api/v1/users/filter?page=0&size=10")).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int redirectToHttps() throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static FilterRegistrationBean<Filter> servletRedirect() {
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+            HttpServletRequest req = (HttpServletRequest) request;
+            HttpServletResponse resp = (HttpServletResponse) response;
+            if (req.getScheme().equals("http") && !req.getServletPath().startsWith(HttpsRedirectHandler.ACTUATOR_PATH)) {
+                String url = "https://" + req.getServerName() + String.format(":%s", HTTPS_PORT)
+                    + req.getContextPath() + req.getServletPath();
+                if (req.getPathInfo() != null) {
+                    url += req.getPathInfo();
+                }
+                resp.sendRedirect(url);
+            } else {
+                chain.doFilter(request, response);
+            }
+        });
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
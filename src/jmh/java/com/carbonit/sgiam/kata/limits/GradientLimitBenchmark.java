@@ -0,0 +1,45 @@
+package com.carbonit.sgiam.kata.limits;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the concurrency limiter adds to every request, an acquire and a release with its limit update, as the
+ * concurrency grows. The limit is kept above the thread count so that no request is rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradientLimitBenchmark {
+
+    private static final long LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private GradientLimit limit;
+
+    @Setup
+    public void setUp() {
+        limit = new GradientLimit(1000, 1000, 1000);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean singleThread() {
+        return acquireAndRelease();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean sixteenThreads() {
+        return acquireAndRelease();
+    }
+
+    private boolean acquireAndRelease() {
+        boolean acquired = limit.tryAcquire();
+        if (acquired) limit.release(LATENCY_NANOS);
+        return acquired;
+    }
+}
@@ -0,0 +1,65 @@
+package com.carbonit.sgiam.kata.mappers;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.models.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    @Param({"1000"})
+    public int listSize;
+
+    private final UserMapper userMapper = new UserMapperImpl();
+
+    private User user;
+    private UserDTO userDTO;
+    private List<User> users;
+    private List<UserDTO> userDTOs;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("user_name");
+        userDTO = userMapper.toDto(user);
+        users = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            User listUser = new User();
+            listUser.setId(UUID.randomUUID());
+            listUser.setName("user_" + i);
+            users.add(listUser);
+        }
+        userDTOs = userMapper.toDto(users);
+    }
+
+    @Benchmark
+    public UserDTO toDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User toEntity() {
+        return userMapper.toEntity(userDTO);
+    }
+
+    @Benchmark
+    public List<UserDTO> toDtoList() {
+        return userMapper.toDto(users);
+    }
+
+    @Benchmark
+    public List<User> toEntityList() {
+        return userMapper.toEntity(userDTOs);
+    }
+}
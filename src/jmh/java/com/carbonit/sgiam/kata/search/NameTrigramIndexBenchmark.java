@@ -0,0 +1,86 @@
+package com.carbonit.sgiam.kata.search;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.models.User;
+import com.carbonit.sgiam.kata.repositories.UsersRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Substring and typo tolerant name lookups in the trigram index, against the linear scan a {@code LIKE '%x%'} comes
+ * down to. The rebuild time and the memory footprint of the index are printed once it is built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NameTrigramIndexBenchmark {
+
+    private static final int LIMIT = 20;
+    private static final String[] WORDS = { "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel" };
+
+    @Param({"100000", "1000000"})
+    public int indexSize;
+
+    private NameTrigramIndex index;
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        names = new String[indexSize];
+        for (int i = 0; i < indexSize; i++) names[i] = name(i);
+        UsersRepository repository = (UsersRepository) Proxy.newProxyInstance(UsersRepository.class.getClassLoader(),
+            new Class<?>[] { UsersRepository.class }, (proxy, method, args) -> IntStream.range(0, indexSize).mapToObj(i -> {
+                User user = new User();
+                user.setId(UUID.randomUUID());
+                user.setName(names[i]);
+                return user;
+            }));
+        index = new NameTrigramIndex(repository, 0.3);
+        long start = System.nanoTime();
+        index.rebuild();
+        System.out.printf("%n%d names indexed in %d ms, %d trigrams, %d MB%n", index.liveDocuments(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), index.trigrams(), index.footprint() >> 20);
+    }
+
+    private static String name(final int i) {
+        return WORDS[i % WORDS.length] + "_" + WORDS[(i / WORDS.length) % WORDS.length] + "_" + i;
+    }
+
+    private String randomName() {
+        return names[ThreadLocalRandom.current().nextInt(indexSize)];
+    }
+
+    @Benchmark
+    public List<UserDTO> indexSubstring() {
+        String name = randomName();
+        return index.search(name.substring(name.length() - 5), LIMIT);
+    }
+
+    @Benchmark
+    public List<UserDTO> indexTypo() {
+        String name = randomName();
+        return index.search(name.substring(0, 3) + name.substring(4), LIMIT);
+    }
+
+    @Benchmark
+    public List<String> scanSubstring() {
+        String name = randomName();
+        String query = name.substring(name.length() - 5).toLowerCase(Locale.ROOT);
+        List<String> found = new ArrayList<>(LIMIT);
+        for (String candidate : names) {
+            if (candidate.toLowerCase(Locale.ROOT).contains(query) && found.size() < LIMIT) found.add(candidate);
+        }
+        return found;
+    }
+}
@@ -0,0 +1,105 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.BenchmarkContexts;
+import com.carbonit.sgiam.kata.dtos.BatchItemResultDTO;
+import com.carbonit.sgiam.kata.dtos.BulkResultDTO;
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User deletion and renaming throughput, one id at a time against the chunked set-based path.
+ * Scores are per deleted or renamed user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsersBulkBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private ConfigurableApplicationContext context;
+    private UsersService service;
+    private List<UserDTO> renames;
+    private int renameRound;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start();
+        service = context.getBean(UsersService.class);
+        renames = new ArrayList<>(BATCH_SIZE);
+        for (UUID id : insert(service)) {
+            UserDTO rename = new UserDTO();
+            rename.setId(id);
+            renames.add(rename);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Users inserted before every invocation, to be deleted by it
+     */
+    @State(Scope.Benchmark)
+    public static class FreshUsers {
+        List<UUID> ids;
+
+        @Setup(Level.Invocation)
+        public void setUp(UsersBulkBenchmark benchmark) {
+            ids = insert(benchmark.service);
+        }
+    }
+
+    private static List<UUID> insert(final UsersService service) {
+        List<UserDTO> users = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            UserDTO user = new UserDTO();
+            user.setName("user_" + i);
+            users.add(user);
+        }
+        List<UUID> ids = new ArrayList<>(BATCH_SIZE);
+        for (BatchItemResultDTO result : service.createUsers(users)) ids.add(result.getUser().getId());
+        return ids;
+    }
+
+    private List<UserDTO> nextRenames() {
+        String name = "renamed_" + renameRound++ + "_";
+        for (int i = 0; i < renames.size(); i++) renames.get(i).setName(name + i);
+        return renames;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void deleteUsersOneByOne(FreshUsers users) {
+        for (UUID id : users.ids) service.deleteUser(id);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BulkResultDTO deleteUsersInBulk(FreshUsers users) {
+        return service.deleteUsers(users.ids);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void renameUsersOneByOne() {
+        for (UserDTO rename : nextRenames()) service.updateUser(rename.getId(), rename);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BulkResultDTO renameUsersInBulk() {
+        return service.renameUsers(nextRenames());
+    }
+}
@@ -0,0 +1,126 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.BenchmarkContexts;
+import com.carbonit.sgiam.kata.exports.ExportFormat;
+import com.carbonit.sgiam.kata.exports.UserRowWriter;
+import com.carbonit.sgiam.kata.models.User;
+import com.carbonit.sgiam.kata.repositories.UsersRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full table exports to a discarding stream, the users list built in memory against the row by row export in each
+ * format. The rows counter gives the rows per second, the peak heap of every iteration is printed at its end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UsersExportBenchmark {
+
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Param({"1000000", "3000000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private UsersService service;
+    private ObjectMapper objectMapper;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Rows {
+        public long rows;
+    }
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start();
+        service = context.getBean(UsersService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        UsersRepository repository = context.getBean(UsersRepository.class);
+        for (int start = 0; start < tableSize; start += CHUNK_SIZE) {
+            List<User> users = new ArrayList<>(CHUNK_SIZE);
+            for (int i = start; i < Math.min(start + CHUNK_SIZE, tableSize); i++) {
+                User user = new User();
+                user.setName("user_" + i);
+                users.add(user);
+            }
+            repository.insertAll(users);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeakHeap() {
+        System.gc();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeakHeap() {
+        long peak = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .mapToLong(pool -> pool.getPeakUsage().getUsed())
+            .sum();
+        System.out.printf("%npeak heap %d MB%n", peak >> 20);
+    }
+
+    @Benchmark
+    public void findAllAsJsonArray(Rows rows) throws IOException {
+        try (OutputStream output = new BufferedOutputStream(OutputStream.nullOutputStream(), BUFFER_SIZE)) {
+            List<?> users = service.findAllUsers();
+            objectMapper.writeValue(output, users);
+            rows.rows += users.size();
+        }
+    }
+
+    @Benchmark
+    public void exportNdjson(Rows rows) throws IOException {
+        rows.rows += export(ExportFormat.NDJSON, false);
+    }
+
+    @Benchmark
+    public void exportCsv(Rows rows) throws IOException {
+        rows.rows += export(ExportFormat.CSV, false);
+    }
+
+    @Benchmark
+    public void exportGzipNdjson(Rows rows) throws IOException {
+        rows.rows += export(ExportFormat.NDJSON, true);
+    }
+
+    private long export(final ExportFormat format, final boolean gzip) throws IOException {
+        OutputStream output = new BufferedOutputStream(OutputStream.nullOutputStream(), BUFFER_SIZE);
+        if (gzip) output = new GZIPOutputStream(output, BUFFER_SIZE);
+        try (UserRowWriter writer = format.open(output, objectMapper.getFactory())) {
+            return service.exportUsers((id, name) -> {
+                try {
+                    writer.write(id, name);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
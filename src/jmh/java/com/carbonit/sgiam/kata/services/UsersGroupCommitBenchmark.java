@@ -0,0 +1,52 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.BenchmarkContexts;
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent single user creations, each inserted and committed by its caller against coalesced into group commits,
+ * for several windows. The sample time mode gives the latency percentiles the window adds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class UsersGroupCommitBenchmark {
+
+    private static final String DISABLED = "off";
+
+    @Param({DISABLED, "0ms", "1ms", "2ms", "5ms"})
+    public String window;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private UsersService service;
+
+    @Setup
+    public void setUp() {
+        context = DISABLED.equals(window)
+            ? BenchmarkContexts.start("users.group-commit.enabled=false")
+            : BenchmarkContexts.start("users.group-commit.enabled=true", "users.group-commit.window=" + window);
+        service = context.getBean(UsersService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO createUser() {
+        UserDTO user = new UserDTO();
+        user.setName("user_" + sequence.incrementAndGet());
+        return service.createUser(user);
+    }
+}
@@ -0,0 +1,71 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.BenchmarkContexts;
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.search.SearchMode;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name searches against tables of growing size, the latency should stay flat as both modes seek the name index.
+ * Every prefix matches {@link #USERS_PER_PREFIX} users, a page of {@link #PAGE_SIZE} is read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UsersSearchBenchmark {
+
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int USERS_PER_PREFIX = 100;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private UsersService service;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start();
+        service = context.getBean(UsersService.class);
+        for (int start = 0; start < tableSize; start += CHUNK_SIZE) {
+            List<UserDTO> users = new ArrayList<>(CHUNK_SIZE);
+            for (int i = start; i < Math.min(start + CHUNK_SIZE, tableSize); i++) {
+                UserDTO user = new UserDTO();
+                user.setName(name(i));
+                users.add(user);
+            }
+            service.createUsers(users);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private static String name(final int i) {
+        return String.format("user_%07d", i);
+    }
+
+    @Benchmark
+    public Slice<UserDTO> searchExactName() {
+        return service.searchUsers(name(ThreadLocalRandom.current().nextInt(tableSize)), SearchMode.EXACT, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Slice<UserDTO> searchNamePrefix() {
+        String name = name(ThreadLocalRandom.current().nextInt(tableSize));
+        return service.searchUsers(name.substring(0, name.length() - 2), SearchMode.PREFIX, null, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,80 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.BenchmarkContexts;
+import com.carbonit.sgiam.kata.dtos.BatchItemResultDTO;
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.pagination.UserCursor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.domain.PageRequest.of;
+
+/**
+ * End to end read paths of {@link UsersServiceImpl} against an embedded H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsersServiceBenchmark {
+
+    @Param({"10000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private UsersService service;
+    private List<UUID> ids;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start();
+        service = context.getBean(UsersService.class);
+        List<UserDTO> users = new ArrayList<>(tableSize);
+        for (int i = 0; i < tableSize; i++) {
+            UserDTO user = new UserDTO();
+            user.setName("user_" + i);
+            users.add(user);
+        }
+        ids = new ArrayList<>(tableSize);
+        for (BatchItemResultDTO result : service.createUsers(users)) {
+            ids.add(result.getUser().getId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO findUserById() {
+        return service.findUserById(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public Slice<UserDTO> filterUsersDeepPage() {
+        return service.filterUsers(of(tableSize / 100 - 1, 100));
+    }
+
+    @Benchmark
+    public Slice<UserDTO> seekUsers() {
+        UserDTO after = new UserDTO();
+        after.setId(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+        return service.seekUsers(UserCursor.SortKey.ID, UserCursor.after(UserCursor.SortKey.ID, after), 100);
+    }
+
+    @Benchmark
+    public long streamAllUsers(final Blackhole blackhole) {
+        return service.streamAllUsers(blackhole::consume);
+    }
+}
@@ -0,0 +1,64 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.BenchmarkContexts;
+import com.carbonit.sgiam.kata.dtos.BatchItemResultDTO;
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User creation throughput, one by one against the bulk path, for each user id generation strategy.
+ * Scores are per created user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsersWriteBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"random", "time-ordered"})
+    public String idStrategy;
+
+    private ConfigurableApplicationContext context;
+    private UsersService service;
+    private UserDTO user;
+    private List<UserDTO> users;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start("spring.jpa.properties.sgiam.user-id.strategy=" + idStrategy);
+        service = context.getBean(UsersService.class);
+        user = new UserDTO();
+        user.setName("user_name");
+        users = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            UserDTO batchUser = new UserDTO();
+            batchUser.setName("user_" + i);
+            users.add(batchUser);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO createUser() {
+        return service.createUser(user);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<BatchItemResultDTO> createUsers() {
+        return service.createUsers(users);
+    }
+}
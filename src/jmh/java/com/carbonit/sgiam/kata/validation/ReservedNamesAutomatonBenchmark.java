@@ -0,0 +1,58 @@
+package com.carbonit.sgiam.kata.validation;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of a name that contains none of the reserved patterns, the worst case since the whole name is scanned,
+ * as the rule set grows. The automaton against one contains call per pattern.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservedNamesAutomatonBenchmark {
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz_-0123456789";
+
+    @Param({"1", "10", "100", "1000"})
+    public int patternCount;
+
+    private List<String> patterns;
+    private ReservedNamesAutomaton automaton;
+    private String name;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        patterns = new ArrayList<>(patternCount);
+        patterns.add("admin");
+        while (patterns.size() < patternCount) {
+            StringBuilder pattern = new StringBuilder("svc-");
+            for (int i = 0, length = 3 + random.nextInt(6); i < length; i++) pattern.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            patterns.add(pattern.toString());
+        }
+        automaton = ReservedNamesAutomaton.compile(patterns);
+        name = "friendly_user_of_the_billing_team";
+        if (automaton.find(name) != null) throw new IllegalStateException("The benchmarked name must not be reserved");
+    }
+
+    @Benchmark
+    public String automaton() {
+        return automaton.find(name);
+    }
+
+    @Benchmark
+    public String containsLoop() {
+        for (String pattern : patterns) {
+            if (name.contains(pattern)) return pattern;
+        }
+        return null;
+    }
+}
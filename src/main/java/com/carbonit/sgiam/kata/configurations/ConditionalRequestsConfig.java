@@ -0,0 +1,21 @@
+package com.carbonit.sgiam.kata.configurations;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class ConditionalRequestsConfig {
+
+    /**
+     * The users listing has no cheap version to compare, its ETag is a hash of the body. A matching
+     * If-None-Match still saves the transfer of the body. The streaming mode opts out to stay unbuffered.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> usersListEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/v1/users");
+        return registration;
+    }
+}
@@ -0,0 +1,70 @@
+package com.carbonit.sgiam.kata.configurations;
+
+import com.carbonit.sgiam.kata.datasources.ReadYourWrites;
+import com.carbonit.sgiam.kata.datasources.ReplicaPool;
+import com.carbonit.sgiam.kata.datasources.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * With users.datasource.replicas.enabled, the read-only transactions read from the replicas and everything else goes
+ * to spring.datasource, the primary. The replicas share the credentials and the hikari settings of the primary.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "users.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    @ConfigurationProperties(HIKARI_PREFIX)
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaPool replicaPool(DataSourceProperties properties, Environment environment,
+            @Value("${users.datasource.replicas.urls}") final String[] urls,
+            @Value("${users.datasource.replicas.selection}") final String selection,
+            @Value("${users.datasource.replicas.health-check-interval}") final Duration healthCheckInterval) {
+        List<HikariDataSource> dataSources = new ArrayList<>(urls.length);
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(urls[i]).build();
+            Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(dataSource));
+            dataSource.setPoolName("replica-" + i);
+            dataSources.add(dataSource);
+        }
+        return new ReplicaPool(dataSources, ReplicaPool.Selection.fromSetting(selection), healthCheckInterval);
+    }
+
+    /**
+     * The data source of JPA and of the sql initialization, outside of a read-only transaction it is the primary
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, ReplicaPool replicaPool,
+            @Value("${users.datasource.read-your-writes-window}") final Duration readYourWritesWindow) {
+        return new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(primary, replicaPool, new ReadYourWrites(readYourWritesWindow)));
+    }
+}
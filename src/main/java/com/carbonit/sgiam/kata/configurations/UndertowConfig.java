@@ -1,18 +1,142 @@
 package com.carbonit.sgiam.kata.configurations;
 
+import com.carbonit.sgiam.kata.handlers.ConcurrencyLimitHandler;
+import com.carbonit.sgiam.kata.handlers.HttpsRedirectHandler;
+import com.carbonit.sgiam.kata.limits.GradientLimit;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
 import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * The io and worker pools, the buffers, the compression and http/2 are set with the server properties of spring boot,
+ * the server.undertow.dispatch-mode property selects where the blocking servlet work runs.
+ */
 @Configuration
 public class UndertowConfig {
 
+    /**
+     * The initial handler wrappers added last wrap the others: the limiter is added before the https redirection so
+     * that it runs inside it, and the redirected requests neither take a permit nor bring the limits latency down.
+     */
+    static final int CONCURRENCY_LIMIT_ORDER = 1;
+    static final int HTTPS_REDIRECT_ORDER = 2;
+
     @Bean
     public WebServerFactoryCustomizer<UndertowServletWebServerFactory> containerCustomizer(
             @Value("${server.http.port}") final int httpPort, @Value("${server.http.interface}") final String httpInterface) {
         return factory -> factory.getBuilderCustomizers()
             .add(builder -> builder.addHttpListener(httpPort, httpInterface));
     }
-}
\ No newline at end of file
+
+    /**
+     * The redirection wraps the deployment from the outside, it runs on the IO thread for both listeners.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> httpsRedirectCustomizer(
+            @Value("${server.port}") final int httpsPort,
+            @Value("${server.http.redirect.enabled}") final boolean enabled,
+            @Value("${server.http.redirect.host}") final String redirectHost,
+            @Value("${server.http.hsts.enabled}") final boolean hsts,
+            @Value("${server.http.hsts.max-age}") final Duration hstsMaxAge) {
+        return new OrderedCustomizer(HTTPS_REDIRECT_ORDER, factory -> {
+            if (enabled) factory.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.addInitialHandlerChainWrapper(
+                handler -> new HttpsRedirectHandler(handler, httpsPort, redirectHost, hsts ? hstsMaxAge : null)));
+        });
+    }
+
+    /**
+     * The limiter wraps the deployment from the outside as well, within the https redirection, the requests it sheds
+     * never reach a worker.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> concurrencyLimitCustomizer(MeterRegistry registry,
+            @Value("${server.undertow.concurrency-limit.enabled}") final boolean enabled,
+            @Value("${server.undertow.concurrency-limit.retry-after}") final Duration retryAfter,
+            @Value("${server.undertow.concurrency-limit.reads.initial}") final int readsInitial,
+            @Value("${server.undertow.concurrency-limit.reads.min}") final int readsMin,
+            @Value("${server.undertow.concurrency-limit.reads.max}") final int readsMax,
+            @Value("${server.undertow.concurrency-limit.lists.initial}") final int listsInitial,
+            @Value("${server.undertow.concurrency-limit.lists.min}") final int listsMin,
+            @Value("${server.undertow.concurrency-limit.lists.max}") final int listsMax,
+            @Value("${server.undertow.concurrency-limit.streams.max}") final int streamsMax) {
+        return new OrderedCustomizer(CONCURRENCY_LIMIT_ORDER, factory -> {
+            if (!enabled) return;
+            GradientLimit reads = new GradientLimit(readsInitial, readsMin, readsMax);
+            GradientLimit lists = new GradientLimit(listsInitial, listsMin, listsMax);
+            GradientLimit streams = new GradientLimit(streamsMax, streamsMax, streamsMax);
+            factory.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.addInitialHandlerChainWrapper(
+                handler -> new ConcurrencyLimitHandler(handler, reads, lists, streams, retryAfter, registry)));
+        });
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> dispatchModeCustomizer(
+            @Value("${server.undertow.dispatch-mode}") final String dispatchMode) {
+        DispatchMode mode = DispatchMode.fromSetting(dispatchMode);
+        return factory -> factory.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.setExecutor(mode.executor()));
+    }
+
+    /**
+     * The order of a lambda customizer, the order of a bean method is not seen by the customizers post processor
+     */
+    static final class OrderedCustomizer implements WebServerFactoryCustomizer<UndertowServletWebServerFactory>, Ordered {
+        private final int order;
+        private final WebServerFactoryCustomizer<UndertowServletWebServerFactory> customizer;
+
+        OrderedCustomizer(final int order, final WebServerFactoryCustomizer<UndertowServletWebServerFactory> customizer) {
+            this.order = order;
+            this.customizer = customizer;
+        }
+
+        @Override
+        public void customize(final UndertowServletWebServerFactory factory) {
+            customizer.customize(factory);
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+    }
+
+    public enum DispatchMode {
+        /**
+         * The requests are handled by the bounded worker pool, a request waiting on the database holds a worker.
+         */
+        WORKER("worker"),
+        /**
+         * Every request is handled by a virtual thread of its own, which leaves its carrier while it waits.
+         */
+        VIRTUAL_THREADS("virtual-threads"),
+        ;
+
+        private final String setting;
+
+        DispatchMode(String setting) {
+            this.setting = setting;
+        }
+
+        /**
+         * @return the executor of the servlet requests, null to keep the worker pool
+         */
+        Executor executor() {
+            if (this == WORKER) return null;
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("undertow-virtual-", 0).factory());
+        }
+
+        public static DispatchMode fromSetting(final String setting) {
+            for (DispatchMode mode : values()) {
+                if (mode.setting.equalsIgnoreCase(setting)) return mode;
+            }
+            throw new IllegalArgumentException(String.format("Unknown dispatch mode %s, expected worker or virtual-threads", setting));
+        }
+    }
+}
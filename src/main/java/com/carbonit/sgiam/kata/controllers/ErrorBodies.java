@@ -0,0 +1,63 @@
+package com.carbonit.sgiam.kata.controllers;
+
+import com.carbonit.sgiam.kata.dtos.ErrorResponseDTO;
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * {@link ErrorResponseDTO} JSON bodies written without a DTO nor an object mapper. The part before the message is
+ * serialized once per status, the messages with no variable part once and for all.
+ */
+final class ErrorBodies {
+
+    private static final byte[] BAD_REQUEST_PREFIX = prefix(HttpStatus.BAD_REQUEST);
+    private static final byte[] NOT_FOUND_PREFIX = prefix(HttpStatus.NOT_FOUND);
+    private static final byte[] SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+    private static final Map<ParameterNotValidException.ErrorMessage, byte[]> STATIC_BAD_REQUESTS =
+        new EnumMap<>(ParameterNotValidException.ErrorMessage.class);
+
+    static {
+        for (ParameterNotValidException.ErrorMessage message : ParameterNotValidException.ErrorMessage.values()) {
+            if (!message.getMessageTemplate().contains("%")) {
+                STATIC_BAD_REQUESTS.put(message, body(BAD_REQUEST_PREFIX, message.getMessageTemplate()));
+            }
+        }
+    }
+
+    private ErrorBodies() {
+    }
+
+    static byte[] badRequest(final ParameterNotValidException e) {
+        byte[] body = STATIC_BAD_REQUESTS.get(e.getErrorMessage());
+        return body != null ? body : body(BAD_REQUEST_PREFIX, e.getMessage());
+    }
+
+    static byte[] notFound(final RuntimeException e) {
+        return body(NOT_FOUND_PREFIX, e.getMessage());
+    }
+
+    /**
+     * @return false when the client prefers one of the binary formats, whose bodies are left to the converters
+     */
+    static boolean acceptsJson(final String accept) {
+        return Representation.fromAccept(accept) == Representation.JSON;
+    }
+
+    private static byte[] prefix(final HttpStatus status) {
+        return ("{\"code\":\"" + status + "\",\"message\":\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] body(final byte[] prefix, final String message) {
+        byte[] quoted = JsonStringEncoder.getInstance().quoteAsUTF8(message);
+        byte[] body = new byte[prefix.length + quoted.length + SUFFIX.length];
+        System.arraycopy(prefix, 0, body, 0, prefix.length);
+        System.arraycopy(quoted, 0, body, prefix.length, quoted.length);
+        System.arraycopy(SUFFIX, 0, body, prefix.length + quoted.length, SUFFIX.length);
+        return body;
+    }
+}
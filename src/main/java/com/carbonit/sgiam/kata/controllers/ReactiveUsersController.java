@@ -0,0 +1,117 @@
+package com.carbonit.sgiam.kata.controllers;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import com.carbonit.sgiam.kata.services.ReactiveUsersService;
+import com.carbonit.sgiam.kata.utils.Uuids;
+import com.carbonit.sgiam.kata.validation.NameValidator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_UUID;
+import static org.springframework.data.domain.PageRequest.of;
+
+/**
+ * Same contract as {@link UsersController} served by WebFlux, no request holds a thread while waiting on the database.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping(value = "/api/v1/users", produces = "application/json")
+public class ReactiveUsersController {
+
+    private final ReactiveUsersService service;
+    private final NameValidator nameValidator;
+
+    ReactiveUsersController(ReactiveUsersService service, NameValidator nameValidator){
+        this.service = service;
+        this.nameValidator = nameValidator;
+    }
+
+    @Operation(summary = "Create a user")
+    @ApiResponses(value = { @ApiResponse(responseCode = "201", description = "User created", content = {
+        @Content(mediaType = "application/json", schema = @Schema(implementation = UserDTO.class))}
+    )})
+    @PostMapping("")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<UserDTO> postUser(@RequestBody final UserDTO user) throws ParameterNotValidException {
+        nameValidator.check(user);
+        return service.createUser(user);
+    }
+
+    @Operation(summary = "Get a user by Id")
+    @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Found user", content = {
+        @Content(mediaType = "application/json", schema = @Schema(implementation = UserDTO.class))}
+    )})
+    @GetMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<UserDTO> getUserById(@PathVariable("id") final String idAsString) throws ParameterNotValidException {
+        return service.findUserById(parseId(idAsString));
+    }
+
+    @Operation(summary = "Get all users")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Found users", content = {
+            @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = UserDTO.class)))}),
+        @ApiResponse(responseCode = "204", description = "No users found", content = @Content) })
+    @GetMapping("")
+    public Mono<ResponseEntity<List<UserDTO>>> getAllUsers() {
+        return service.findAllUsers()
+            .collectList()
+            .map(ReactiveUsersController::toResponse);
+    }
+
+    @Operation(summary = "Get all users by filtering")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "found users", content = {
+                    @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = UserDTO.class)))}),
+            @ApiResponse(responseCode = "204", description = "No Users found", content = @Content) })
+    @GetMapping(value = "/filter", params = "page")
+    public Mono<ResponseEntity<List<UserDTO>>> filterUsers(@RequestParam("page") final Integer page, @RequestParam("size") final Integer size) {
+        return service.filterUsers(of(page, size))
+            .collectList()
+            .map(ReactiveUsersController::toResponse);
+    }
+
+    @Operation(summary = "Update a user")
+    @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "User updated", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = UserDTO.class))}
+    )})
+    @PutMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<UserDTO> updateUser(@PathVariable("id") final String idAsString, @RequestBody final UserDTO user) throws ParameterNotValidException {
+        nameValidator.check(user);
+        return service.updateUser(parseId(idAsString), user);
+    }
+
+    @Operation(summary = "Delete a user")
+    @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "User deleted", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = UserDTO.class))}
+    )})
+    @DeleteMapping(value = "/{id}", produces = "application/json")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<UserDTO> deleteUser(@PathVariable("id") final String idAsString) throws ParameterNotValidException {
+        return service.deleteUser(parseId(idAsString));
+    }
+
+    private static UUID parseId(final String idAsString) throws ParameterNotValidException {
+        UUID id = Uuids.parse(idAsString);
+        if (id == null) throw new ParameterNotValidException(INVALID_UUID, idAsString);
+        return id;
+    }
+
+    private static ResponseEntity<List<UserDTO>> toResponse(final List<UserDTO> users) {
+        return new ResponseEntity<>(users, users.isEmpty() ? HttpStatus.NO_CONTENT : HttpStatus.OK);
+    }
+}
@@ -0,0 +1,56 @@
+package com.carbonit.sgiam.kata.controllers;
+
+import com.carbonit.sgiam.kata.dtos.ErrorResponseDTO;
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import com.carbonit.sgiam.kata.exceptions.UserNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import static com.carbonit.sgiam.kata.controllers.UsersControllerAdvice.ERRORS_COUNTER;
+
+@Profile("reactive")
+@RestControllerAdvice(assignableTypes = ReactiveUsersController.class)
+public class ReactiveUsersControllerAdvice {
+
+    private final Counter notFoundErrors;
+    private final Counter invalidParameterErrors;
+
+    ReactiveUsersControllerAdvice(MeterRegistry registry) {
+        this.notFoundErrors = registry.counter(ERRORS_COUNTER, "type", "not_found");
+        this.invalidParameterErrors = registry.counter(ERRORS_COUNTER, "type", "invalid_parameter");
+    }
+
+    @ExceptionHandler(UserNotFoundException.class)
+    @ApiResponses(value = { @ApiResponse(responseCode = "404", description = "No user was found", content = {
+        @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))}
+    )})
+    public ResponseEntity<ErrorResponseDTO> notFoundException(final UserNotFoundException e) {
+        notFoundErrors.increment();
+        return error(HttpStatus.NOT_FOUND, e);
+    }
+
+    @ExceptionHandler(ParameterNotValidException.class)
+    @ApiResponses(value = { @ApiResponse(responseCode = "400", description = "The provided parameters are invalid", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))}
+    )})
+    public ResponseEntity<ErrorResponseDTO> assertionException(final ParameterNotValidException e) {
+        invalidParameterErrors.increment();
+        return error(HttpStatus.BAD_REQUEST, e);
+    }
+
+    private static ResponseEntity<ErrorResponseDTO> error(final HttpStatus status, final RuntimeException e) {
+        ErrorResponseDTO errorResponseDTO = new ErrorResponseDTO();
+        errorResponseDTO.setCode(status.toString());
+        errorResponseDTO.setMessage(e.getLocalizedMessage());
+        return new ResponseEntity<>(errorResponseDTO, status);
+    }
+}
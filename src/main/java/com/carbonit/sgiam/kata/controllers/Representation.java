@@ -0,0 +1,49 @@
+package com.carbonit.sgiam.kata.controllers;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static com.carbonit.sgiam.kata.configurations.BinaryFormatsConfig.SMILE_VALUE;
+
+/**
+ * The representations of a user the endpoints negotiate, picked from the Accept header as the converters pick them:
+ * the most specific and preferred type first, JSON when nothing else matches. Their ETags differ so that a cached
+ * representation is never validated for another one.
+ */
+enum Representation {
+    JSON(MediaType.APPLICATION_JSON, ""),
+    CBOR(MediaType.APPLICATION_CBOR, "-cbor"),
+    SMILE(MediaType.parseMediaType(SMILE_VALUE), "-smile"),
+    ;
+
+    private final MediaType mediaType;
+    private final String eTagSuffix;
+
+    Representation(MediaType mediaType, String eTagSuffix) {
+        this.mediaType = mediaType;
+        this.eTagSuffix = eTagSuffix;
+    }
+
+    String eTag(final long version) {
+        return "\"" + version + eTagSuffix + "\"";
+    }
+
+    static Representation fromAccept(final String accept) {
+        if (accept == null) return JSON;
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        for (MediaType accepted : mediaTypes) {
+            for (Representation representation : values()) {
+                if (accepted.isCompatibleWith(representation.mediaType)) return representation;
+            }
+        }
+        return JSON;
+    }
+}
@@ -1,36 +1,88 @@
 package com.carbonit.sgiam.kata.controllers;
 
+import com.carbonit.sgiam.kata.dtos.BatchItemResultDTO;
+import com.carbonit.sgiam.kata.dtos.BulkResultDTO;
 import com.carbonit.sgiam.kata.dtos.UserDTO;
 import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
 import com.carbonit.sgiam.kata.exceptions.UserNotFoundException;
+import com.carbonit.sgiam.kata.exports.ExportFormat;
+import com.carbonit.sgiam.kata.exports.UserRowWriter;
+import com.carbonit.sgiam.kata.pagination.UserCursor;
+import com.carbonit.sgiam.kata.search.NameTrigramIndex;
+import com.carbonit.sgiam.kata.search.SearchMode;
 import com.carbonit.sgiam.kata.services.UsersService;
+import com.carbonit.sgiam.kata.utils.Uuids;
+import com.carbonit.sgiam.kata.validation.NameValidator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
+import static com.carbonit.sgiam.kata.configurations.BinaryFormatsConfig.SMILE_VALUE;
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_CURSOR;
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_PAGE_SIZE;
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_RANK_LIMIT;
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_SEARCH_NAME;
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_SEARCH_QUERY;
 import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_UUID;
-import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.NAME_CONTAINS_ADMIN;
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.UNVALID;
 import static org.springframework.data.domain.PageRequest.of;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 @RestController
-@RequestMapping(value = "/api/v1/users", produces = "application/json")
+@Profile("!reactive")
+@RequestMapping(value = "/api/v1/users", produces = { APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, SMILE_VALUE })
 public class UsersController {
 
-    public static final String ADMIN = "admin";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String GZIP_VALUE = "application/gzip";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
     private final UsersService service;
+    private final ObjectWriter userWriter;
+    private final NameValidator nameValidator;
+    private final int maxPageSize;
+    private final int maxRankLimit;
 
-    UsersController(UsersService service){
+    UsersController(UsersService service, ObjectMapper objectMapper, NameValidator nameValidator,
+            @Value("${users.pagination.max-size}") final int maxPageSize,
+            @Value("${users.search.max-limit}") final int maxRankLimit){
         this.service = service;
+        this.nameValidator = nameValidator;
+        this.maxPageSize = maxPageSize;
+        this.maxRankLimit = maxRankLimit;
+        this.userWriter = objectMapper.writerFor(UserDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
 
@@ -41,23 +93,86 @@ public class UsersController {
     @PostMapping("")
     @ResponseStatus(HttpStatus.CREATED)
     public UserDTO postUser(@RequestBody final UserDTO user) throws ParameterNotValidException {
-        checkUserValidity(user);
+        nameValidator.check(user);
         return service.createUser(user);
     }
 
-    @Operation(summary = "Get a user by Id")
-    @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Found user", content = {
-            @Content(mediaType = "application/json", schema = @Schema(implementation = UserDTO.class))}
-    )})
+    @Operation(summary = "Create users in bulk", description = "Every user is validated and reported on its own, "
+        + "the valid ones are inserted by chunks")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "All the users were created", content = {
+            @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = BatchItemResultDTO.class)))}),
+        @ApiResponse(responseCode = "207", description = "Some users were not created", content = {
+            @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = BatchItemResultDTO.class)))}) })
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResultDTO>> postUsers(@RequestBody final List<UserDTO> users) {
+        List<BatchItemResultDTO> results = new ArrayList<>(Collections.nCopies(users.size(), null));
+        List<UserDTO> validUsers = new ArrayList<>(users.size());
+        List<Integer> validIndexes = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            try {
+                nameValidator.check(users.get(i));
+                validUsers.add(users.get(i));
+                validIndexes.add(i);
+            } catch (ParameterNotValidException e) {
+                results.set(i, rejected(i, users.get(i), e.getMessage()));
+            }
+        }
+        boolean allCreated = validUsers.size() == users.size();
+        for (BatchItemResultDTO result : service.createUsers(validUsers)) {
+            int index = validIndexes.get(result.getIndex());
+            result.setIndex(index);
+            results.set(index, result);
+            allCreated &= result.getStatus() == BatchItemResultDTO.Status.CREATED;
+        }
+        return new ResponseEntity<>(results, allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
+    }
+
+    private static BatchItemResultDTO rejected(final int index, final UserDTO user, final String message) {
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.setIndex(index);
+        result.setStatus(BatchItemResultDTO.Status.REJECTED);
+        result.setUser(user);
+        result.setMessage(message);
+        return result;
+    }
+
+    @Operation(summary = "Get a user by Id", description = "The response carries an ETag, a matching If-None-Match "
+        + "gets a 304 without the user being loaded")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Found user", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = UserDTO.class))}),
+        @ApiResponse(responseCode = "304", description = "The user did not change", content = @Content) })
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public UserDTO getUserById(@PathVariable("id") final String idAsString) throws UserNotFoundException, ParameterNotValidException {
-        try {
-            UUID id = UUID.fromString(idAsString);
-            return service.findUserById(id);
-        } catch (IllegalArgumentException e){
-            throw new ParameterNotValidException(INVALID_UUID, idAsString);
+    public ResponseEntity<UserDTO> getUserById(@PathVariable("id") final String idAsString, final WebRequest request)
+            throws UserNotFoundException, ParameterNotValidException {
+        UUID id = parseId(idAsString);
+        Representation representation = Representation.fromAccept(request.getHeader(HttpHeaders.ACCEPT));
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            // an unknown user or a user without version matches no ETag, the lookup below answers for it
+            OptionalLong version = service.findUserVersion(id);
+            if (version.isPresent() && request.checkNotModified(representation.eTag(version.getAsLong()))) return null;
         }
+        UserDTO user = service.findUserById(id);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (user.getVersion() != null) response.eTag(representation.eTag(user.getVersion()));
+        return response.body(user);
+    }
+
+    /**
+     * @throws ParameterNotValidException when the id is not a uuid, no exception is thrown on the way
+     */
+    private static UUID parseId(final String idAsString) throws ParameterNotValidException {
+        UUID id = Uuids.parse(idAsString);
+        if (id == null) throw new ParameterNotValidException(INVALID_UUID, idAsString);
+        return id;
+    }
+
+    /**
+     * @throws ParameterNotValidException when the size would make an empty or an unbounded page
+     */
+    private void checkPageSize(final int size) throws ParameterNotValidException {
+        if (size < 1 || size > maxPageSize) throw new ParameterNotValidException(INVALID_PAGE_SIZE, String.valueOf(size), String.valueOf(maxPageSize));
     }
 
     @Operation(summary = "Get all users")
@@ -72,17 +187,170 @@ public class UsersController {
         return new ResponseEntity<>(users, HttpStatus.OK);
     }
 
-    @Operation(summary = "Get all users by filtering")
+    @Operation(summary = "Stream all users", description = "Writes the users as a JSON array while they are read from the database")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Found users", content = {
+            @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = UserDTO.class)))}),
+        @ApiResponse(responseCode = "204", description = "No users found", content = @Content) })
+    @GetMapping(value = "", params = "stream=true", produces = APPLICATION_JSON_VALUE)
+    public void streamAllUsers(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        // the array is only opened with the first user, an empty table gets a 204 without a body
+        JsonGenerator[] generator = new JsonGenerator[1];
+        long count;
+        try {
+            count = service.streamAllUsers(user -> {
+                if (generator[0] == null) generator[0] = startArray(response);
+                writeUser(generator[0], user);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if(count == 0) {
+            response.setStatus(HttpStatus.NO_CONTENT.value());
+            return;
+        }
+        generator[0].writeEndArray();
+        generator[0].close();
+    }
+
+    private JsonGenerator startArray(final HttpServletResponse response) {
+        try {
+            response.setContentType(APPLICATION_JSON_VALUE);
+            JsonGenerator generator = userWriter.getFactory().createGenerator(response.getOutputStream());
+            generator.writeStartArray();
+            return generator;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeUser(JsonGenerator generator, UserDTO user) {
+        try {
+            userWriter.writeValue(generator, user);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Operation(summary = "Export all users", description = "Writes every user as NDJSON or CSV while it is read from "
+        + "a forward-only database cursor, as a gzip file of the NDJSON or CSV when asked")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "All the users", content = {
+            @Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv"),
+            @Content(mediaType = GZIP_VALUE)}) })
+    @GetMapping(value = "/export", produces = { "application/x-ndjson", "text/csv", GZIP_VALUE, APPLICATION_JSON_VALUE })
+    public void exportUsers(@RequestParam(value = "format", defaultValue = "ndjson") final String format,
+            @RequestParam(value = "gzip", defaultValue = "false") final boolean gzip,
+            final HttpServletRequest request, final HttpServletResponse response) throws IOException, ParameterNotValidException {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        // the gzip export is a file of its own rather than a content encoding, which only the clients accepting it get
+        response.setContentType(gzip ? GZIP_VALUE : exportFormat.getMediaType() + ";charset=UTF-8");
+        String filename = "users." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        OutputStream output = new BufferedOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE);
+        if (gzip) output = new GZIPOutputStream(output, EXPORT_BUFFER_SIZE);
+        try (UserRowWriter writer = exportFormat.open(output, userWriter.getFactory())) {
+            service.exportUsers((id, name) -> writeRow(writer, id, name));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeRow(final UserRowWriter writer, final UUID id, final String name) {
+        try {
+            writer.write(id, name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Operation(summary = "Get all users by filtering", description = "The total number of users is returned in the "
+        + TOTAL_COUNT_HEADER + " header when total is true")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "found users", content = {
                     @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = UserDTO.class)))}),
             @ApiResponse(responseCode = "204", description = "No Users found", content = @Content) })
-    @GetMapping("/filter")
+    @GetMapping(value = "/filter", params = "page")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<List<UserDTO>> filterUsers(@RequestParam("page") final Integer page, @RequestParam("size") final Integer size) {
-        Page<UserDTO> users = service.filterUsers(of(page, size));
-        if(users.isEmpty()) return new ResponseEntity<>(users.getContent(), HttpStatus.NO_CONTENT);
-        return new ResponseEntity<>(users.getContent(), HttpStatus.OK);
+    public ResponseEntity<List<UserDTO>> filterUsers(@RequestParam("page") final Integer page, @RequestParam("size") final Integer size,
+            @RequestParam(value = "total", defaultValue = "false") final boolean total) throws ParameterNotValidException {
+        checkPageSize(size);
+        Slice<UserDTO> users = service.filterUsers(of(page, size));
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(users.isEmpty() ? HttpStatus.NO_CONTENT : HttpStatus.OK);
+        if(total) response.header(TOTAL_COUNT_HEADER, String.valueOf(service.countUsers()));
+        return response.body(users.getContent());
+    }
+
+    @Operation(summary = "Get users after a cursor", description = "Keyset pagination, the next cursor is returned in the "
+        + NEXT_CURSOR_HEADER + " header when there are more users")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "found users", content = {
+                    @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = UserDTO.class)))}),
+            @ApiResponse(responseCode = "204", description = "No Users found", content = @Content) })
+    @GetMapping(value = "/filter", params = "!page")
+    public ResponseEntity<List<UserDTO>> seekUsers(@RequestParam("size") final Integer size,
+            @RequestParam(value = "after", required = false) final String after,
+            @RequestParam(value = "sort", required = false) final String sort) throws ParameterNotValidException {
+        checkPageSize(size);
+        UserCursor cursor = after != null ? UserCursor.decode(after) : null;
+        UserCursor.SortKey sortKey = sort != null ? UserCursor.SortKey.fromParameter(sort)
+            : cursor != null ? cursor.getSortKey() : UserCursor.SortKey.ID;
+        if (cursor != null && cursor.getSortKey() != sortKey) throw new ParameterNotValidException(INVALID_CURSOR, after);
+
+        Slice<UserDTO> users = service.seekUsers(sortKey, cursor, size);
+        if(!users.hasContent()) return new ResponseEntity<>(users.getContent(), HttpStatus.NO_CONTENT);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if(users.hasNext()) {
+            UserDTO last = users.getContent().get(users.getNumberOfElements() - 1);
+            response.header(NEXT_CURSOR_HEADER, UserCursor.after(sortKey, last).encode());
+        }
+        return response.body(users.getContent());
+    }
+
+    @Operation(summary = "Search users by name", description = "Exact or prefix match on the name, in name order. The next "
+        + "cursor is returned in the " + NEXT_CURSOR_HEADER + " header when there are more users")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "found users", content = {
+                    @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = UserDTO.class)))}),
+            @ApiResponse(responseCode = "204", description = "No Users found", content = @Content) })
+    @GetMapping("/search")
+    public ResponseEntity<List<UserDTO>> searchUsers(@RequestParam("name") final String name,
+            @RequestParam(value = "mode", defaultValue = "exact") final String mode,
+            @RequestParam(value = "size", defaultValue = "20") final Integer size,
+            @RequestParam(value = "after", required = false) final String after) throws ParameterNotValidException {
+        if (name.isEmpty()) throw new ParameterNotValidException(INVALID_SEARCH_NAME, name);
+        checkPageSize(size);
+        SearchMode searchMode = SearchMode.fromParameter(mode);
+        UserCursor cursor = after != null ? UserCursor.decode(after) : null;
+        if (cursor != null && cursor.getSortKey() != UserCursor.SortKey.NAME) throw new ParameterNotValidException(INVALID_CURSOR, after);
+
+        Slice<UserDTO> users = service.searchUsers(name, searchMode, cursor, size);
+        if(!users.hasContent()) return new ResponseEntity<>(users.getContent(), HttpStatus.NO_CONTENT);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if(users.hasNext()) {
+            UserDTO last = users.getContent().get(users.getNumberOfElements() - 1);
+            response.header(NEXT_CURSOR_HEADER, UserCursor.after(UserCursor.SortKey.NAME, last).encode());
+        }
+        return response.body(users.getContent());
+    }
+
+    @Operation(summary = "Rank users by name similarity", description = "Substring and typo tolerant match on the name, "
+        + "served from an in-memory trigram index. The names containing the query come first, then the closest ones")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "found users", content = {
+                    @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = UserDTO.class)))}),
+            @ApiResponse(responseCode = "204", description = "No Users found", content = @Content) })
+    @GetMapping("/search/ranked")
+    public ResponseEntity<List<UserDTO>> rankUsers(@RequestParam("q") final String query,
+            @RequestParam(value = "limit", defaultValue = "20") final Integer limit) throws ParameterNotValidException {
+        if (query.length() < NameTrigramIndex.MIN_QUERY_LENGTH) throw new ParameterNotValidException(INVALID_SEARCH_QUERY, query);
+        if (limit < 1 || limit > maxRankLimit) throw new ParameterNotValidException(INVALID_RANK_LIMIT, String.valueOf(limit), String.valueOf(maxRankLimit));
+
+        List<UserDTO> users = service.rankUsers(query, limit);
+        if(users.isEmpty()) return new ResponseEntity<>(users, HttpStatus.NO_CONTENT);
+        return ResponseEntity.ok(users);
     }
 
     @Operation(summary = "Update a user")
@@ -92,32 +360,82 @@ public class UsersController {
     @PutMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public UserDTO updateUser(@PathVariable("id") final String idAsString, @RequestBody final UserDTO user) throws UserNotFoundException, ParameterNotValidException {
-        checkUserValidity(user);
-        try {
-            UUID id = UUID.fromString(idAsString);
-            return service.updateUser(id, user);
-        } catch (IllegalArgumentException e){
-            throw new ParameterNotValidException(INVALID_UUID, idAsString);
-        }
+        nameValidator.check(user);
+        return service.updateUser(parseId(idAsString), user);
     }
 
-    private void checkUserValidity(UserDTO user) throws ParameterNotValidException {
-        if (user.getName().contains(ADMIN)) throw new ParameterNotValidException(NAME_CONTAINS_ADMIN, user.getName());
+    @Operation(summary = "Rename users in bulk", description = "Every user is validated on its own, the valid ones are "
+        + "renamed by chunks of batched updates. The ids not found are reported")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "All the users were renamed", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = BulkResultDTO.class))}),
+        @ApiResponse(responseCode = "207", description = "Some users were not renamed", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = BulkResultDTO.class))}) })
+    @PostMapping(value = "/batch/rename", consumes = { APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, SMILE_VALUE })
+    public ResponseEntity<BulkResultDTO> renameUsers(@RequestBody final List<UserDTO> users) {
+        List<UserDTO> validUsers = new ArrayList<>(users.size());
+        List<BatchItemResultDTO> rejected = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            UserDTO user = users.get(i);
+            try {
+                if (user.getId() == null) throw new ParameterNotValidException(INVALID_UUID, null);
+                if (user.getName() == null) throw new ParameterNotValidException(UNVALID, null);
+                nameValidator.check(user);
+                validUsers.add(user);
+            } catch (ParameterNotValidException e) {
+                rejected.add(rejected(i, user, e.getMessage()));
+            }
+        }
+        return bulkResponse(service.renameUsers(validUsers), users.size(), rejected);
     }
 
     @Operation(summary = "Delete a user")
     @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "User deleted", content = {
             @Content(mediaType = "application/json", schema = @Schema(implementation = UserDTO.class))}
     )})
-    @DeleteMapping(value = "/{id}", produces = "application/json")
+    @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public UserDTO deleteUser(@PathVariable("id") final String idAsString) throws UserNotFoundException, ParameterNotValidException {
-        try {
-            UUID id = UUID.fromString(idAsString);
-            return service.deleteUser(id);
-        } catch (IllegalArgumentException e){
-            throw new ParameterNotValidException(INVALID_UUID, idAsString);
+        return service.deleteUser(parseId(idAsString));
+    }
+
+    @Operation(summary = "Delete users in bulk", description = "The ids are deleted by chunks of set-based deletes, "
+        + "the ones not found are reported. The ids are either a JSON array or a text/plain body of one id per line")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "All the users were deleted", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = BulkResultDTO.class))}),
+        @ApiResponse(responseCode = "207", description = "Some users were not deleted", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = BulkResultDTO.class))}) })
+    @PostMapping(value = "/batch/delete", consumes = { APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, SMILE_VALUE })
+    public ResponseEntity<BulkResultDTO> deleteUsers(@RequestBody final List<String> ids) {
+        return deleteUsers(ids.iterator());
+    }
+
+    @PostMapping(value = "/batch/delete", consumes = "text/plain")
+    public ResponseEntity<BulkResultDTO> deleteUsersFromLines(final HttpServletRequest request) throws IOException {
+        try (BufferedReader reader = request.getReader()) {
+            return deleteUsers(reader.lines().map(String::trim).filter(line -> !line.isEmpty()).iterator());
         }
     }
 
+    private ResponseEntity<BulkResultDTO> deleteUsers(final Iterator<String> ids) {
+        List<UUID> validIds = new ArrayList<>();
+        List<BatchItemResultDTO> rejected = new ArrayList<>();
+        int index = 0;
+        for (; ids.hasNext(); index++) {
+            String idAsString = ids.next();
+            UUID id = Uuids.parse(idAsString);
+            if (id != null) validIds.add(id);
+            else rejected.add(rejected(index, null, String.format(INVALID_UUID.getMessageTemplate(), idAsString)));
+        }
+        return bulkResponse(service.deleteUsers(validIds), index, rejected);
+    }
+
+    private static ResponseEntity<BulkResultDTO> bulkResponse(final BulkResultDTO result, final int requested,
+            final List<BatchItemResultDTO> rejected) {
+        result.setRequested(requested);
+        result.setRejected(rejected);
+        boolean allApplied = rejected.isEmpty() && result.getNotFound().isEmpty() && result.getFailed().isEmpty();
+        return new ResponseEntity<>(result, allApplied ? HttpStatus.OK : HttpStatus.MULTI_STATUS);
+    }
 }
@@ -3,28 +3,61 @@ package com.carbonit.sgiam.kata.controllers;
 import com.carbonit.sgiam.kata.dtos.ErrorResponseDTO;
 import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
 import com.carbonit.sgiam.kata.exceptions.UserNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
-@ControllerAdvice(assignableTypes = UsersController.class)
-@RequestMapping(produces = "application/json")
+import javax.servlet.http.HttpServletResponse;
+
+import static com.carbonit.sgiam.kata.configurations.BinaryFormatsConfig.SMILE_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@Profile("!reactive")
+@ControllerAdvice(assignableTypes = { UsersController.class, UsersImportController.class })
+@RequestMapping(produces = { APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, SMILE_VALUE })
 public class UsersControllerAdvice extends ResponseEntityExceptionHandler {
 
+    static final String ERRORS_COUNTER = "users.errors";
+    private final Counter notFoundErrors;
+    private final Counter invalidParameterErrors;
+
+    UsersControllerAdvice(MeterRegistry registry) {
+        this.notFoundErrors = registry.counter(ERRORS_COUNTER, "type", "not_found");
+        this.invalidParameterErrors = registry.counter(ERRORS_COUNTER, "type", "invalid_parameter");
+    }
+
+    /**
+     * The bodies and their ETags depend on the negotiated format, the caches must keep one response per Accept header
+     */
+    @ModelAttribute
+    public void varyOnAccept(final HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
     @ExceptionHandler(UserNotFoundException.class)
     @ApiResponses(value = { @ApiResponse(responseCode = "404", description = "No user was found", content = {
         @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))}
     )})
     @ResponseStatus(HttpStatus.NOT_FOUND)
-    public ResponseEntity<ErrorResponseDTO> notFoundException(final UserNotFoundException e) {
+    public ResponseEntity<?> notFoundException(final UserNotFoundException e, final WebRequest request) {
+        notFoundErrors.increment();
+        if (ErrorBodies.acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) return json(HttpStatus.NOT_FOUND, ErrorBodies.notFound(e));
         ErrorResponseDTO errorResponseDTO = new ErrorResponseDTO();
         errorResponseDTO.setCode(HttpStatus.NOT_FOUND.toString());
         errorResponseDTO.setMessage(e.getLocalizedMessage());
@@ -36,11 +69,19 @@ public class UsersControllerAdvice extends ResponseEntityExceptionHandler {
             @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))}
     )})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ResponseEntity<ErrorResponseDTO> assertionException(final ParameterNotValidException e) {
+    public ResponseEntity<?> assertionException(final ParameterNotValidException e, final WebRequest request) {
+        invalidParameterErrors.increment();
+        if (ErrorBodies.acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) return json(HttpStatus.BAD_REQUEST, ErrorBodies.badRequest(e));
         ErrorResponseDTO errorResponseDTO = new ErrorResponseDTO();
         errorResponseDTO.setCode(HttpStatus.BAD_REQUEST.toString());
         errorResponseDTO.setMessage(e.getLocalizedMessage());
         return new ResponseEntity<>(errorResponseDTO, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Pre-serialized JSON bodies, the common case, the binary formats go through the converters
+     */
+    private static ResponseEntity<byte[]> json(final HttpStatus status, final byte[] body) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
@@ -0,0 +1,98 @@
+package com.carbonit.sgiam.kata.controllers;
+
+import com.carbonit.sgiam.kata.dtos.ImportReportDTO;
+import com.carbonit.sgiam.kata.imports.CsvUserRecordReader;
+import com.carbonit.sgiam.kata.imports.NdjsonUserRecordReader;
+import com.carbonit.sgiam.kata.imports.UserRecordReader;
+import com.carbonit.sgiam.kata.imports.UsersImporter;
+import com.carbonit.sgiam.kata.validation.NameValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static com.carbonit.sgiam.kata.configurations.BinaryFormatsConfig.SMILE_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping(value = "/api/v1/users", produces = { APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, SMILE_VALUE })
+public class UsersImportController {
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    private final UsersImporter importer;
+    private final NameValidator nameValidator;
+    private final ObjectReader userReader;
+    private final int maxRecordLength;
+
+    UsersImportController(UsersImporter importer, NameValidator nameValidator, ObjectMapper objectMapper,
+            @Value("${users.import.max-record-length}") final int maxRecordLength) {
+        this.importer = importer;
+        this.nameValidator = nameValidator;
+        this.userReader = objectMapper.reader();
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    @Operation(summary = "Import users from NDJSON", description = "One user per line, read and committed by chunks "
+        + "while the body is received. Every record is validated on its own, the first errors are reported")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "All the users were imported", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = ImportReportDTO.class))}),
+        @ApiResponse(responseCode = "207", description = "Some users were not imported", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = ImportReportDTO.class))}) })
+    @PostMapping(value = "/import", consumes = NDJSON)
+    public ResponseEntity<ImportReportDTO> importNdjson(final HttpServletRequest request) throws IOException {
+        try (BufferedReader reader = reader(request)) {
+            return importUsers(new NdjsonUserRecordReader(reader, userReader, maxRecordLength));
+        }
+    }
+
+    @Operation(summary = "Import users from CSV", description = "A header with a name column then one user per record, "
+        + "read and committed by chunks while the body is received. Every record is validated on its own, the first "
+        + "errors are reported")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "All the users were imported", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = ImportReportDTO.class))}),
+        @ApiResponse(responseCode = "207", description = "Some users were not imported", content = {
+            @Content(mediaType = "application/json", schema = @Schema(implementation = ImportReportDTO.class))}) })
+    @PostMapping(value = "/import", consumes = CSV)
+    public ResponseEntity<ImportReportDTO> importCsv(final HttpServletRequest request) throws IOException {
+        try (BufferedReader reader = reader(request)) {
+            return importUsers(new CsvUserRecordReader(reader, maxRecordLength));
+        }
+    }
+
+    private ResponseEntity<ImportReportDTO> importUsers(final UserRecordReader reader) throws IOException {
+        ImportReportDTO report = importer.importUsers(reader, nameValidator::check);
+        boolean allCreated = report.getCreated() == report.getRead();
+        return new ResponseEntity<>(report, allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
+    }
+
+    /**
+     * Decodes the body as UTF-8 unless the request says otherwise, not as the ISO-8859-1 servlet default
+     */
+    private static BufferedReader reader(final HttpServletRequest request) throws IOException {
+        Charset charset = request.getCharacterEncoding() != null ? Charset.forName(request.getCharacterEncoding()) : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(request.getInputStream(), charset));
+    }
+}
@@ -0,0 +1,89 @@
+package com.carbonit.sgiam.kata.datasources;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+
+/**
+ * Sends the reads of a client to the primary for a window after its last write, so that it does not read what the
+ * replicas have not replicated yet. The time of the write is kept in a cookie, the following requests of the client
+ * carry it whatever the instance serving them. The clients ignoring cookies, and the writes made outside of a request,
+ * are not followed.
+ */
+public class ReadYourWrites {
+
+    static final String COOKIE = "users-last-write";
+    private static final String WRITTEN_AT = ReadYourWrites.class.getName() + ".writtenAt";
+    private static final long NEVER = -1;
+
+    private final long windowMillis;
+
+    /**
+     * @param window 0 to always read from the replicas
+     */
+    public ReadYourWrites(final Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    boolean isEnabled() {
+        return windowMillis > 0;
+    }
+
+    /**
+     * @return true when the client of the current request wrote less than the window ago
+     */
+    boolean isPinnedToPrimary() {
+        if (!isEnabled()) return false;
+        ServletRequestAttributes attributes = currentAttributes();
+        if (attributes == null) return false;
+        Long writtenAt = (Long) attributes.getAttribute(WRITTEN_AT, RequestAttributes.SCOPE_REQUEST);
+        if (writtenAt == null) {
+            writtenAt = fromCookie(attributes.getRequest());
+            attributes.setAttribute(WRITTEN_AT, writtenAt, RequestAttributes.SCOPE_REQUEST);
+        }
+        return writtenAt != NEVER && System.currentTimeMillis() - writtenAt < windowMillis;
+    }
+
+    /**
+     * Pins the rest of the current request, and the requests of its client within the window, to the primary
+     */
+    void written() {
+        if (!isEnabled()) return;
+        ServletRequestAttributes attributes = currentAttributes();
+        if (attributes == null) return;
+        long now = System.currentTimeMillis();
+        attributes.setAttribute(WRITTEN_AT, now, RequestAttributes.SCOPE_REQUEST);
+        HttpServletResponse response = attributes.getResponse();
+        if (response == null || response.isCommitted()) return;
+        Cookie cookie = new Cookie(COOKIE, Long.toString(now));
+        cookie.setPath("/");
+        cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+        cookie.setHttpOnly(true);
+        cookie.setSecure(attributes.getRequest().isSecure());
+        response.addCookie(cookie);
+    }
+
+    private static ServletRequestAttributes currentAttributes() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes ? (ServletRequestAttributes) attributes : null;
+    }
+
+    private static long fromCookie(final HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return NEVER;
+        for (Cookie cookie : cookies) {
+            if (!COOKIE.equals(cookie.getName())) continue;
+            try {
+                return Long.parseLong(cookie.getValue());
+            } catch (NumberFormatException e) {
+                return NEVER;
+            }
+        }
+        return NEVER;
+    }
+}
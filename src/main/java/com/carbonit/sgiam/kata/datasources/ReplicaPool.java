@@ -0,0 +1,169 @@
+package com.carbonit.sgiam.kata.datasources;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read replicas, each with its own connection pool. A replica that fails to give a connection or fails its
+ * periodic check is ejected, the next successful check brings it back.
+ *
+ * The metrics are bound once the registry is ready rather than at construction, the registry binders need the data
+ * source that routes to this pool.
+ */
+public class ReplicaPool implements AutoCloseable, MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaPool.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final List<Replica> replicas;
+    private final Selection selection;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService checker;
+
+    /**
+     * @param healthCheckInterval 0 to not check the replicas, an ejected replica then never comes back
+     */
+    public ReplicaPool(final List<HikariDataSource> dataSources, final Selection selection, final Duration healthCheckInterval) {
+        this.replicas = new ArrayList<>(dataSources.size());
+        for (HikariDataSource dataSource : dataSources) replicas.add(new Replica(dataSource));
+        this.selection = selection;
+        long intervalMillis = healthCheckInterval.toMillis();
+        if (intervalMillis > 0) {
+            checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "users-replicas-health");
+                thread.setDaemon(true);
+                return thread;
+            });
+            checker.scheduleWithFixedDelay(this::check, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            checker = null;
+        }
+    }
+
+    int size() {
+        return replicas.size();
+    }
+
+    public int healthy() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) healthy++;
+        }
+        return healthy;
+    }
+
+    /**
+     * Starts from the next replica in turn, so that the ties of the least connections selection are spread too
+     * @return a healthy replica, null when they are all ejected
+     */
+    Replica select() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        Replica selected = null;
+        int selectedConnections = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) continue;
+            if (selection == Selection.ROUND_ROBIN) return replica;
+            int connections = replica.activeConnections();
+            if (connections < selectedConnections) {
+                selected = replica;
+                selectedConnections = connections;
+            }
+        }
+        return selected;
+    }
+
+    void eject(final Replica replica, final SQLException cause) {
+        if (!replica.healthy) return;
+        replica.healthy = false;
+        LOGGER.warn("Replica {} ejected, its reads go to the other replicas or to the primary", replica.name(), cause);
+    }
+
+    /**
+     * Ejects the replicas that cannot give a valid connection and brings back the ones that can again
+     */
+    void check() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy == replica.healthy) continue;
+            replica.healthy = healthy;
+            if (healthy) LOGGER.info("Replica {} is healthy again", replica.name());
+            else LOGGER.warn("Replica {} ejected, it failed its health check", replica.name());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) replica.dataSource.setMetricRegistry(registry);
+        registry.gauge("users.datasource.replicas.healthy", this, ReplicaPool::healthy);
+    }
+
+    @Override
+    public void close() {
+        if (checker != null) checker.shutdownNow();
+        for (Replica replica : replicas) replica.dataSource.close();
+    }
+
+    static final class Replica {
+        final HikariDataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(final HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        String name() {
+            return dataSource.getPoolName();
+        }
+
+        /**
+         * @return the connections in use, 0 until the pool is started by its first connection
+         */
+        int activeConnections() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+    }
+
+    public enum Selection {
+        ROUND_ROBIN("round-robin"),
+        /**
+         * The replica with the fewest connections in use, the slow or overloaded replicas hold theirs longer
+         */
+        LEAST_CONNECTIONS("least-connections"),
+        ;
+
+        private final String setting;
+
+        Selection(String setting) {
+            this.setting = setting;
+        }
+
+        public static Selection fromSetting(final String setting) {
+            for (Selection selection : values()) {
+                if (selection.setting.equalsIgnoreCase(setting)) return selection;
+            }
+            throw new IllegalArgumentException(String.format("Unknown replica selection %s, expected round-robin or least-connections", setting));
+        }
+    }
+}
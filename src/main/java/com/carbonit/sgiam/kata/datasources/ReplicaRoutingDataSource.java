@@ -0,0 +1,67 @@
+package com.carbonit.sgiam.kata.datasources;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * Gives the connections of the read-only transactions from a replica and every other connection from the primary.
+ * The transaction managers take their connection before marking the transaction read-only, this data source must be
+ * wrapped in a {@link LazyConnectionDataSourceProxy} so that the connection is only chosen at its first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReplicaPool replicas;
+    private final ReadYourWrites readYourWrites;
+
+    public ReplicaRoutingDataSource(final DataSource primary, final ReplicaPool replicas, final ReadYourWrites readYourWrites) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.readYourWrites = readYourWrites;
+    }
+
+    /**
+     * Falls back on the primary when no replica can give a connection, the ones failing are ejected
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            onCommitWritten();
+            return primary.getConnection();
+        }
+        if (readYourWrites.isPinnedToPrimary()) return primary.getConnection();
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            ReplicaPool.Replica replica = replicas.select();
+            if (replica == null) break;
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replicas.eject(replica, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The primary and the replicas share the credentials of spring.datasource");
+    }
+
+    private void onCommitWritten() {
+        if (!readYourWrites.isEnabled() || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.written();
+            }
+        });
+    }
+}
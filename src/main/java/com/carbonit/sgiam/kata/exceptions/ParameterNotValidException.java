@@ -4,8 +4,19 @@ public class ParameterNotValidException extends RuntimeException {
 
     public enum ErrorMessage {
         INVALID_UUID("The value %s is not a valid uuid."),
-        NAME_CONTAINS_ADMIN ("The value %s is not a valid user_name, the name is expected to not contain admin."),
+        NAME_CONTAINS_RESERVED("The value %s is not a valid user_name, the name is expected to not contain %s."),
         UNVALID ("Please verify the data validity."),
+        INVALID_CURSOR("The value %s is not a valid cursor."),
+        INVALID_PAGE_SIZE("The value %s is not a valid page size, the size is expected to be between 1 and %s."),
+        INVALID_SORT("The value %s is not a valid sort key, the sort key is expected to be id or name."),
+        INVALID_SEARCH_MODE("The value %s is not a valid search mode, the mode is expected to be exact or prefix."),
+        INVALID_SEARCH_NAME("The value %s is not a valid name to search, the name is expected to not be empty."),
+        INVALID_SEARCH_QUERY("The value %s is not a valid search query, the query is expected to be at least 3 characters long."),
+        INVALID_RANK_LIMIT("The value %s is not a valid limit, the limit is expected to be between 1 and %s."),
+        INVALID_IMPORT_RECORD("The record %s is not a valid user record."),
+        IMPORT_RECORD_TOO_LONG("The record is not valid, it is expected to be at most %s characters long."),
+        INVALID_EXPORT_FORMAT("The value %s is not a valid export format, the format is expected to be ndjson or csv."),
+        INVALID_CSV_HEADER("The header %s is not a valid csv header, a name column is expected."),
         ;
 
         private final String messageTemplate;
@@ -19,8 +30,24 @@ public class ParameterNotValidException extends RuntimeException {
         }
     }
 
+    private final ErrorMessage errorMessage;
+
+    /**
+     * Stackless, the error is the client's and is fully described by its message. Filling the stack trace of every
+     * invalid request would make floods of them expensive for nothing.
+     */
     public ParameterNotValidException(final ErrorMessage errorMessage, final String value) {
-        super(String.format(errorMessage.getMessageTemplate(), value));
+        super(String.format(errorMessage.getMessageTemplate(), value), null, false, false);
+        this.errorMessage = errorMessage;
+    }
+
+    public ParameterNotValidException(final ErrorMessage errorMessage, final String value, final String expected) {
+        super(String.format(errorMessage.getMessageTemplate(), value, expected), null, false, false);
+        this.errorMessage = errorMessage;
+    }
+
+    public ErrorMessage getErrorMessage() {
+        return errorMessage;
     }
 
 }
@@ -4,7 +4,10 @@ public class UserNotFoundException extends RuntimeException {
 
     public static final String USER_NOT_FOUND_MSG = "No user was found with the id: %s";
 
+    /**
+     * Stackless, like {@link ParameterNotValidException}, unknown ids are an expected outcome rather than a failure.
+     */
     public UserNotFoundException(final String id) {
-        super(String.format(USER_NOT_FOUND_MSG, id));
+        super(String.format(USER_NOT_FOUND_MSG, id), null, false, false);
     }
 }
@@ -0,0 +1,60 @@
+package com.carbonit.sgiam.kata.exports;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Comma separated users as of RFC 4180 with an id,name header, in UTF-8. The names holding a comma, a quote or a line
+ * break are quoted.
+ */
+public class CsvUserRowWriter implements UserRowWriter {
+
+    private static final String HEADER = "id,name\r\n";
+
+    private final Writer writer;
+
+    public CsvUserRowWriter(final OutputStream output) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+    }
+
+    @Override
+    public void write(final UUID id, final String name) throws IOException {
+        writer.write(id.toString());
+        writer.write(',');
+        if (name != null) writeField(name);
+        writer.write("\r\n");
+    }
+
+    private void writeField(final String value) throws IOException {
+        if (!needsQuotes(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') writer.write('"');
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean needsQuotes(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
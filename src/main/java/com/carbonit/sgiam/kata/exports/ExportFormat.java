@@ -0,0 +1,53 @@
+package com.carbonit.sgiam.kata.exports;
+
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import com.fasterxml.jackson.core.JsonFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_EXPORT_FORMAT;
+
+/**
+ * The line oriented formats the users can be exported to, each row being written as soon as it is read.
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        public UserRowWriter open(final OutputStream output, final JsonFactory jsonFactory) throws IOException {
+            return new NdjsonUserRowWriter(output, jsonFactory);
+        }
+    },
+    CSV("text/csv", "csv") {
+        @Override
+        public UserRowWriter open(final OutputStream output, final JsonFactory jsonFactory) throws IOException {
+            return new CsvUserRowWriter(output);
+        }
+    },
+    ;
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(final String mediaType, final String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public abstract UserRowWriter open(OutputStream output, JsonFactory jsonFactory) throws IOException;
+
+    public static ExportFormat fromParameter(final String value) throws ParameterNotValidException {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) return format;
+        }
+        throw new ParameterNotValidException(INVALID_EXPORT_FORMAT, value);
+    }
+}
@@ -0,0 +1,36 @@
+package com.carbonit.sgiam.kata.exports;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+
+/**
+ * One JSON user per line, with the same fields as the users API.
+ */
+public class NdjsonUserRowWriter implements UserRowWriter {
+
+    private final JsonGenerator generator;
+
+    public NdjsonUserRowWriter(final OutputStream output, final JsonFactory jsonFactory) throws IOException {
+        this.generator = jsonFactory.createGenerator(output);
+        // the lines are separated by hand, not by the default space between root values
+        generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(final UUID id, final String name) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", id.toString());
+        generator.writeStringField("name", name);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
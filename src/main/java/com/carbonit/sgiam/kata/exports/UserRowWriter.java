@@ -0,0 +1,14 @@
+package com.carbonit.sgiam.kata.exports;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Writes users as they are read from the database, straight from their columns. Closing flushes and closes the
+ * underlying stream.
+ */
+public interface UserRowWriter extends Closeable {
+
+    void write(UUID id, String name) throws IOException;
+}
@@ -0,0 +1,48 @@
+package com.carbonit.sgiam.kata.generators;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version 7 style UUIDs: 48 bits of unix epoch milliseconds followed by a 12 bits sequence and 62 random bits.
+ * Ids generated by this JVM are strictly increasing, so their big-endian bytes append at the tail of an index.
+ */
+public final class TimeOrderedUuid {
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final AtomicLong LAST_STAMP = new AtomicLong();
+
+    private TimeOrderedUuid() {
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(final long epochMillis) {
+        long candidate = epochMillis << SEQUENCE_BITS;
+        long previous;
+        long stamp;
+        do {
+            previous = LAST_STAMP.get();
+            stamp = Math.max(candidate, previous + 1);
+        } while (!LAST_STAMP.compareAndSet(previous, stamp));
+
+        long mostSigBits = ((stamp >>> SEQUENCE_BITS) << 16) | VERSION | (stamp & ((1L << SEQUENCE_BITS) - 1));
+        long leastSigBits = (RANDOM.nextLong() & RANDOM_MASK) | VARIANT;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * @return the unix epoch milliseconds encoded in a time ordered UUID
+     */
+    public static long timestamp(final UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,33 @@
+package com.carbonit.sgiam.kata.generators;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.Configurable;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+/**
+ * Generates the user ids with the {@link UuidStrategy} selected by the {@value #STRATEGY_SETTING} Hibernate
+ * setting, time ordered by default.
+ */
+public class UserIdGenerator implements IdentifierGenerator, Configurable {
+
+    public static final String STRATEGY_SETTING = "sgiam.user-id.strategy";
+
+    private UuidStrategy strategy = UuidStrategy.TIME_ORDERED;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        strategy = serviceRegistry.getService(ConfigurationService.class)
+            .getSetting(STRATEGY_SETTING, value -> UuidStrategy.fromSetting(value.toString()), UuidStrategy.TIME_ORDERED);
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return strategy.generate();
+    }
+}
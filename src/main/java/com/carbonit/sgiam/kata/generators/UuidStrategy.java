@@ -0,0 +1,29 @@
+package com.carbonit.sgiam.kata.generators;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public enum UuidStrategy {
+    RANDOM("random", UUID::randomUUID),
+    TIME_ORDERED("time-ordered", TimeOrderedUuid::next),
+    ;
+
+    private final String setting;
+    private final Supplier<UUID> generator;
+
+    UuidStrategy(String setting, Supplier<UUID> generator) {
+        this.setting = setting;
+        this.generator = generator;
+    }
+
+    public UUID generate() {
+        return generator.get();
+    }
+
+    public static UuidStrategy fromSetting(final String setting) {
+        for (UuidStrategy strategy : values()) {
+            if (strategy.setting.equalsIgnoreCase(setting)) return strategy;
+        }
+        throw new IllegalArgumentException(String.format("Unknown uuid strategy %s, expected random or time-ordered", setting));
+    }
+}
@@ -0,0 +1,104 @@
+package com.carbonit.sgiam.kata.handlers;
+
+import com.carbonit.sgiam.kata.limits.GradientLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import io.undertow.util.StatusCodes;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Sheds the users api requests beyond an adaptive concurrency limit from the IO thread, with a 503 and a Retry-After,
+ * instead of letting them queue for a worker and a database connection. The listings, searches and batches have a limit
+ * of their own, so that they cannot starve the single user requests. The whole table listings, exports and imports last
+ * as long as their data, their latency says nothing of the load: they have a fixed limit apart, so that they do not
+ * shrink the listings one. The other paths are not limited.
+ */
+public class ConcurrencyLimitHandler implements HttpHandler {
+
+    public static final String USERS_PATH = "/api/v1/users";
+    private static final Set<String> LIST_PATHS = new HashSet<>(Arrays.asList(
+        "/filter", "/search", "/search/ranked", "/batch", "/batch/rename", "/batch/delete"));
+    private static final Set<String> STREAM_PATHS = new HashSet<>(Arrays.asList("/export", "/import"));
+    private static final String OVERLOADED_BODY =
+        "{\"code\":\"503 SERVICE_UNAVAILABLE\",\"message\":\"Too many requests in progress, retry later.\"}";
+
+    private final HttpHandler next;
+    private final Route reads;
+    private final Route lists;
+    private final Route streams;
+    private final String retryAfter;
+
+    /**
+     * @param reads the limit of the requests on a single user
+     * @param lists the limit of the requests on many users
+     * @param streams the limit of the whole table listings, exports and imports, whose min and max limits should be equal
+     */
+    public ConcurrencyLimitHandler(final HttpHandler next, final GradientLimit reads, final GradientLimit lists,
+            final GradientLimit streams, final Duration retryAfter, final MeterRegistry registry) {
+        this.next = next;
+        this.reads = new Route("reads", reads, registry);
+        this.lists = new Route("lists", lists, registry);
+        this.streams = new Route("streams", streams, registry);
+        this.retryAfter = Long.toString(Math.max(1, retryAfter.getSeconds()));
+    }
+
+    @Override
+    public void handleRequest(final HttpServerExchange exchange) throws Exception {
+        Route route = route(exchange);
+        if (route == null) {
+            next.handleRequest(exchange);
+            return;
+        }
+        if (!route.limit.tryAcquire()) {
+            route.rejected.increment();
+            exchange.setStatusCode(StatusCodes.SERVICE_UNAVAILABLE);
+            exchange.getResponseHeaders().put(Headers.RETRY_AFTER, retryAfter);
+            exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "application/json");
+            exchange.getResponseSender().send(OVERLOADED_BODY);
+            return;
+        }
+        long start = System.nanoTime();
+        exchange.addExchangeCompleteListener((completed, nextListener) -> {
+            try {
+                route.limit.release(System.nanoTime() - start);
+            } finally {
+                nextListener.proceed();
+            }
+        });
+        next.handleRequest(exchange);
+    }
+
+    /**
+     * @return the route of the request, null when it is not limited
+     */
+    private Route route(final HttpServerExchange exchange) {
+        String path = exchange.getRequestPath();
+        if (!path.startsWith(USERS_PATH)) return null;
+        String subPath = path.substring(USERS_PATH.length());
+        if (subPath.isEmpty() || subPath.equals("/")) return Methods.GET.equals(exchange.getRequestMethod()) ? streams : reads;
+        if (subPath.charAt(0) != '/') return null;
+        if (STREAM_PATHS.contains(subPath)) return streams;
+        return LIST_PATHS.contains(subPath) ? lists : reads;
+    }
+
+    private static final class Route {
+        final GradientLimit limit;
+        final Counter rejected;
+
+        Route(final String name, final GradientLimit limit, final MeterRegistry registry) {
+            this.limit = limit;
+            this.rejected = Counter.builder("users.concurrency.rejected").tag("route", name).register(registry);
+            Gauge.builder("users.concurrency.limit", limit, GradientLimit::getLimit).tag("route", name).register(registry);
+            Gauge.builder("users.concurrency.in-flight", limit, GradientLimit::getInFlight).tag("route", name).register(registry);
+        }
+    }
+}
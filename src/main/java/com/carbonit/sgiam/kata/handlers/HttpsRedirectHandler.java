@@ -0,0 +1,73 @@
+package com.carbonit.sgiam.kata.handlers;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.StatusCodes;
+
+import java.time.Duration;
+
+/**
+ * Redirects the plain http requests to https from the IO thread, before the servlet chain is dispatched to a worker.
+ * The path and the query string are kept. The https responses can carry a Strict-Transport-Security header.
+ */
+public class HttpsRedirectHandler implements HttpHandler {
+
+    /**
+     * The metrics are scraped on the http listener, they are served without redirection.
+     */
+    public static final String ACTUATOR_PATH = "/actuator/";
+    private static final String HTTPS = "https";
+
+    private final HttpHandler next;
+    private final String targetPrefix;
+    private final String portSuffix;
+    private final String strictTransportSecurity;
+
+    /**
+     * @param redirectHost the host to redirect to, the host of the request when empty
+     * @param hstsMaxAge how long the clients should only use https, no Strict-Transport-Security header when null
+     */
+    public HttpsRedirectHandler(final HttpHandler next, final int httpsPort, final String redirectHost, final Duration hstsMaxAge) {
+        this.next = next;
+        this.portSuffix = httpsPort == 443 ? "" : ":" + httpsPort;
+        this.targetPrefix = redirectHost == null || redirectHost.isEmpty() ? null : HTTPS + "://" + redirectHost + portSuffix;
+        this.strictTransportSecurity = hstsMaxAge == null ? null : "max-age=" + hstsMaxAge.getSeconds();
+    }
+
+    @Override
+    public void handleRequest(final HttpServerExchange exchange) throws Exception {
+        if (HTTPS.equals(exchange.getRequestScheme())) {
+            if (strictTransportSecurity != null) {
+                exchange.getResponseHeaders().put(Headers.STRICT_TRANSPORT_SECURITY, strictTransportSecurity);
+            }
+        } else if (!exchange.getRequestPath().startsWith(ACTUATOR_PATH)) {
+            exchange.setStatusCode(StatusCodes.FOUND);
+            exchange.getResponseHeaders().put(Headers.LOCATION, location(exchange));
+            exchange.endExchange();
+            return;
+        }
+        next.handleRequest(exchange);
+    }
+
+    /**
+     * The path is taken from the request uri as it was sent, the decoded request path would not be a valid uri.
+     */
+    private String location(final HttpServerExchange exchange) {
+        String uri = exchange.getRequestURI();
+        if (exchange.isHostIncludedInRequestURI()) {
+            int path = uri.indexOf('/', uri.indexOf("://") + 3);
+            uri = path < 0 ? "/" : uri.substring(path);
+        }
+        String query = exchange.getQueryString();
+        StringBuilder location = new StringBuilder(64 + uri.length() + query.length());
+        if (targetPrefix != null) {
+            location.append(targetPrefix);
+        } else {
+            location.append(HTTPS).append("://").append(exchange.getHostName()).append(portSuffix);
+        }
+        location.append(uri);
+        if (!query.isEmpty()) location.append('?').append(query);
+        return location.toString();
+    }
+}
@@ -0,0 +1,99 @@
+package com.carbonit.sgiam.kata.imports;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.IMPORT_RECORD_TOO_LONG;
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_CSV_HEADER;
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_IMPORT_RECORD;
+
+/**
+ * Comma separated users as of RFC 4180, the first record being a header with a name column. Quoted fields may hold
+ * commas, doubled quotes and line breaks, the other columns are ignored and blank lines are skipped.
+ */
+public class CsvUserRecordReader implements UserRecordReader {
+
+    private static final String NAME_COLUMN = "name";
+
+    private final PushbackReader reader;
+    private final int maxRecordLength;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private final int nameColumn;
+    private int recordLength;
+
+    /**
+     * @throws ParameterNotValidException when the header has no name column
+     */
+    public CsvUserRecordReader(final Reader reader, final int maxRecordLength) throws IOException {
+        this.reader = new PushbackReader(reader);
+        this.maxRecordLength = maxRecordLength;
+        if (!readRecord()) throw new ParameterNotValidException(INVALID_CSV_HEADER, "");
+        int column = -1;
+        for (int i = 0; i < fields.size() && column < 0; i++) {
+            if (fields.get(i).trim().equalsIgnoreCase(NAME_COLUMN)) column = i;
+        }
+        if (column < 0) throw new ParameterNotValidException(INVALID_CSV_HEADER, Records.abbreviate(String.join(",", fields)));
+        this.nameColumn = column;
+    }
+
+    @Override
+    public UserDTO next() throws IOException {
+        do {
+            if (!readRecord()) return null;
+        } while (fields.size() == 1 && fields.get(0).isEmpty());
+        if (fields.size() <= nameColumn) throw new ParameterNotValidException(INVALID_IMPORT_RECORD, Records.abbreviate(String.join(",", fields)));
+        UserDTO user = new UserDTO();
+        user.setName(fields.get(nameColumn));
+        return user;
+    }
+
+    /**
+     * @return false at the end of the stream. A record too long is consumed to its end and then rejected.
+     */
+    private boolean readRecord() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        recordLength = 0;
+        int c = reader.read();
+        if (c == -1) return false;
+        boolean quoted = false;
+        for (; c != -1; c = reader.read()) {
+            if (quoted) {
+                if (c != '"') {
+                    append(c);
+                    continue;
+                }
+                int next = reader.read();
+                if (next == '"') {
+                    append(next);
+                } else {
+                    quoted = false;
+                    if (next != -1) reader.unread(next);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                if (++recordLength <= maxRecordLength) fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                append(c);
+            }
+        }
+        fields.add(field.toString());
+        if (recordLength > maxRecordLength) throw new ParameterNotValidException(IMPORT_RECORD_TOO_LONG, String.valueOf(maxRecordLength));
+        return true;
+    }
+
+    private void append(final int c) {
+        if (++recordLength <= maxRecordLength) field.append((char) c);
+    }
+}
@@ -0,0 +1,59 @@
+package com.carbonit.sgiam.kata.imports;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.IMPORT_RECORD_TOO_LONG;
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_IMPORT_RECORD;
+
+/**
+ * One JSON user per line, blank lines being skipped. Every line is parsed on its own so a malformed one is rejected
+ * without losing the following ones.
+ */
+public class NdjsonUserRecordReader implements UserRecordReader {
+
+    private final Reader reader;
+    private final ObjectReader userReader;
+    private final int maxRecordLength;
+    private final StringBuilder line = new StringBuilder();
+
+    public NdjsonUserRecordReader(final Reader reader, final ObjectReader userReader, final int maxRecordLength) {
+        this.reader = reader;
+        this.userReader = userReader.forType(UserDTO.class);
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    @Override
+    public UserDTO next() throws IOException {
+        do {
+            if (!readLine()) return null;
+        } while (line.toString().isBlank());
+        try {
+            return userReader.readValue(line.toString());
+        } catch (JsonProcessingException e) {
+            throw new ParameterNotValidException(INVALID_IMPORT_RECORD, Records.abbreviate(line));
+        }
+    }
+
+    /**
+     * @return false at the end of the stream. A line too long is consumed to its end and then rejected.
+     */
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        int c = reader.read();
+        if (c == -1) return false;
+        boolean tooLong = false;
+        for (; c != -1 && c != '\n'; c = reader.read()) {
+            if (line.length() < maxRecordLength) line.append((char) c);
+            else tooLong = true;
+        }
+        if (tooLong) throw new ParameterNotValidException(IMPORT_RECORD_TOO_LONG, String.valueOf(maxRecordLength));
+        if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') line.setLength(line.length() - 1);
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package com.carbonit.sgiam.kata.imports;
+
+final class Records {
+
+    private static final int MAX_REPORTED_LENGTH = 100;
+
+    private Records() {
+    }
+
+    /**
+     * @return the record cut to a length fit for an error message
+     */
+    static String abbreviate(final CharSequence record) {
+        if (record.length() <= MAX_REPORTED_LENGTH) return record.toString();
+        return record.subSequence(0, MAX_REPORTED_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,18 @@
+package com.carbonit.sgiam.kata.imports;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+
+import java.io.IOException;
+
+/**
+ * Reads users one record at a time from a character stream, never holding more than the current record in memory.
+ */
+public interface UserRecordReader {
+
+    /**
+     * @return the next user, null once the stream is exhausted
+     * @throws ParameterNotValidException when the record is not a user, it is consumed and the next one can be read
+     */
+    UserDTO next() throws IOException;
+}
@@ -0,0 +1,100 @@
+package com.carbonit.sgiam.kata.imports;
+
+import com.carbonit.sgiam.kata.dtos.BatchItemResultDTO;
+import com.carbonit.sgiam.kata.dtos.ImportReportDTO;
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import com.carbonit.sgiam.kata.services.UsersService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.UNVALID;
+
+/**
+ * Imports users from a record stream of any size, by chunks committed one after the other.
+ *
+ * The records are pulled only once the previous chunk is committed, so a client sending faster than the database
+ * writes is held back by the transport flow control rather than buffered. Memory use is bounded by one chunk and the
+ * reported errors, whatever the size of the stream.
+ */
+@Component
+@Profile("!reactive")
+public class UsersImporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UsersImporter.class);
+
+    private final UsersService service;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    UsersImporter(UsersService service, @Value("${users.import.chunk-size}") final int chunkSize,
+            @Value("${users.import.max-reported-errors}") final int maxReportedErrors) {
+        this.service = service;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * @param validator rejects a user by throwing a {@link ParameterNotValidException}
+     * @return the counts of read, created, rejected and failed records, and the first errors indexed by record position
+     */
+    public ImportReportDTO importUsers(final UserRecordReader reader, final Consumer<UserDTO> validator) throws IOException {
+        ImportReportDTO report = new ImportReportDTO();
+        List<UserDTO> chunk = new ArrayList<>(chunkSize);
+        int[] indexes = new int[chunkSize];
+        int index = 0;
+        for (; ; index++) {
+            UserDTO user = null;
+            try {
+                user = reader.next();
+                if (user == null) break;
+                if (user.getName() == null || user.getName().isBlank()) throw new ParameterNotValidException(UNVALID, null);
+                validator.accept(user);
+            } catch (ParameterNotValidException e) {
+                report.setRejected(report.getRejected() + 1);
+                reportError(report, index, BatchItemResultDTO.Status.REJECTED, user, e.getMessage());
+                continue;
+            }
+            user.setId(null);
+            indexes[chunk.size()] = index;
+            chunk.add(user);
+            if (chunk.size() == chunkSize) commit(chunk, indexes, report);
+        }
+        if (!chunk.isEmpty()) commit(chunk, indexes, report);
+        report.setRead(index);
+        return report;
+    }
+
+    private void commit(final List<UserDTO> chunk, final int[] indexes, final ImportReportDTO report) {
+        for (BatchItemResultDTO result : service.createUsers(chunk)) {
+            if (result.getStatus() == BatchItemResultDTO.Status.CREATED) {
+                report.setCreated(report.getCreated() + 1);
+            } else {
+                report.setFailed(report.getFailed() + 1);
+                reportError(report, indexes[result.getIndex()], result.getStatus(), result.getUser(), result.getMessage());
+            }
+        }
+        report.setChunks(report.getChunks() + 1);
+        LOGGER.debug("Imported {} users in {} chunks", report.getCreated(), report.getChunks());
+        chunk.clear();
+    }
+
+    private void reportError(final ImportReportDTO report, final int index, final BatchItemResultDTO.Status status,
+            final UserDTO user, final String message) {
+        if (report.getErrors().size() >= maxReportedErrors) return;
+        BatchItemResultDTO error = new BatchItemResultDTO();
+        error.setIndex(index);
+        error.setStatus(status);
+        error.setUser(user);
+        error.setMessage(message);
+        report.getErrors().add(error);
+    }
+}
@@ -0,0 +1,83 @@
+package com.carbonit.sgiam.kata.limits;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An adaptive limit of the requests in flight, after the gradient algorithm. The latency of the last requests is
+ * compared to its long term average: while it stays within the tolerance the limit grows by about its square root,
+ * when the requests slow down the limit shrinks in proportion, by half at most. A limit that is not approached does
+ * not move, so an idle period keeps what the limit learnt.
+ */
+public class GradientLimit {
+
+    /**
+     * How much slower than usual the requests may get before the limit shrinks
+     */
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private double estimatedLimit;
+    private double shortLatency;
+    private double longLatency;
+
+    public GradientLimit(final int initialLimit, final int minLimit, final int maxLimit) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format(
+                "Expected 1 <= min limit <= initial limit <= max limit, got %d, %d and %d", minLimit, initialLimit, maxLimit));
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * @return false when the limit is reached, the request must be rejected and not released
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) return false;
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    /**
+     * Ends a request acquired with {@link #tryAcquire()}, its latency adjusts the limit
+     */
+    public void release(final long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(latencyNanos, inFlightBefore);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(final long latencyNanos, final int inFlightBefore) {
+        if (longLatency == 0) {
+            shortLatency = longLatency = Math.max(1, latencyNanos);
+            return;
+        }
+        shortLatency += (latencyNanos - shortLatency) / SHORT_WINDOW;
+        longLatency += (latencyNanos - longLatency) / LONG_WINDOW;
+        // back to normal after a slow period, the long term average catches up faster with the current latency
+        if (longLatency > 2 * shortLatency) longLatency *= 0.95;
+        if (inFlightBefore < estimatedLimit / 2) return;
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatency / shortLatency));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,61 @@
+package com.carbonit.sgiam.kata.metrics;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+
+/**
+ * Counts the statements and entity loads issued by Hibernate on the current thread, between {@link #start()}
+ * and {@link #stop()}. The counting hooks are registered by class name in the Hibernate settings:
+ * {@code hibernate.session_factory.statement_inspector} and {@code hibernate.session_factory.interceptor}.
+ */
+public final class HibernateRequestStatistics {
+
+    private static final ThreadLocal<HibernateRequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long entityLoads;
+
+    private HibernateRequestStatistics() {
+    }
+
+    public static void start() {
+        CURRENT.set(new HibernateRequestStatistics());
+    }
+
+    public static HibernateRequestStatistics stop() {
+        HibernateRequestStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics != null ? statistics : new HibernateRequestStatistics();
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getEntityLoads() {
+        return entityLoads;
+    }
+
+    public static class StatementCounter implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            HibernateRequestStatistics statistics = CURRENT.get();
+            if (statistics != null) statistics.statements++;
+            return sql;
+        }
+    }
+
+    public static class EntityLoadCounter extends EmptyInterceptor {
+
+        @Override
+        public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+            HibernateRequestStatistics statistics = CURRENT.get();
+            if (statistics != null) statistics.entityLoads++;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.carbonit.sgiam.kata.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Records how many statements and entity loads each request caused, per matched endpoint.
+ */
+@Component
+@Order(2)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry registry;
+
+    RequestMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HibernateRequestStatistics.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            HibernateRequestStatistics statistics = HibernateRequestStatistics.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+            summary("users.request.statements", request.getMethod(), uri).record(statistics.getStatements());
+            summary("users.request.entity.loads", request.getMethod(), uri).record(statistics.getEntityLoads());
+        }
+    }
+
+    private DistributionSummary summary(final String name, final String method, final String uri) {
+        return DistributionSummary.builder(name)
+            .tag("method", method)
+            .tag("uri", uri)
+            .register(registry);
+    }
+}
@@ -0,0 +1,116 @@
+package com.carbonit.sgiam.kata.pagination;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_CURSOR;
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_SORT;
+
+/**
+ * Opaque position in a keyset ordered listing of users. The token carries the sort key and the last seen
+ * values of that key, so the next page is fetched with a {@code WHERE key > ?} seek instead of an offset.
+ */
+public final class UserCursor {
+
+    public enum SortKey {
+        ID("i", Sort.by("id")),
+        NAME("n", Sort.by("name", "id")),
+        ;
+
+        private final String prefix;
+        private final Sort sort;
+
+        SortKey(String prefix, Sort sort) {
+            this.prefix = prefix;
+            this.sort = sort;
+        }
+
+        public Sort getSort() {
+            return sort;
+        }
+
+        public static SortKey fromParameter(final String value) throws ParameterNotValidException {
+            for (SortKey sortKey : values()) {
+                if (sortKey.name().equalsIgnoreCase(value)) return sortKey;
+            }
+            throw new ParameterNotValidException(INVALID_SORT, value);
+        }
+
+        private static SortKey fromPrefix(final String prefix) {
+            for (SortKey sortKey : values()) {
+                if (sortKey.prefix.equals(prefix)) return sortKey;
+            }
+            throw new IllegalArgumentException(prefix);
+        }
+    }
+
+    private static final char SEPARATOR = ':';
+
+    private final SortKey sortKey;
+    private final UUID id;
+    private final String name;
+
+    private UserCursor(final SortKey sortKey, final UUID id, final String name) {
+        this.sortKey = sortKey;
+        this.id = id;
+        this.name = name;
+    }
+
+    public static UserCursor after(final SortKey sortKey, final UserDTO user) {
+        return new UserCursor(sortKey, user.getId(), sortKey == SortKey.NAME ? user.getName() : null);
+    }
+
+    public static UserCursor decode(final String token) throws ParameterNotValidException {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int idStart = decoded.indexOf(SEPARATOR) + 1;
+            int idEnd = idStart + 36;
+            SortKey sortKey = SortKey.fromPrefix(decoded.substring(0, idStart - 1));
+            UUID id = UUID.fromString(decoded.substring(idStart, Math.min(idEnd, decoded.length())));
+            if (sortKey == SortKey.ID) {
+                if (decoded.length() != idEnd) throw new IllegalArgumentException(token);
+                return new UserCursor(sortKey, id, null);
+            }
+            if (decoded.length() <= idEnd || decoded.charAt(idEnd) != SEPARATOR) throw new IllegalArgumentException(token);
+            return new UserCursor(sortKey, id, decoded.substring(idEnd + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ParameterNotValidException(INVALID_CURSOR, token);
+        }
+    }
+
+    public String encode() {
+        String raw = sortKey.prefix + SEPARATOR + id + (name != null ? SEPARATOR + name : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UserCursor that = (UserCursor) o;
+        return sortKey == that.sortKey && id.equals(that.id) && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortKey, id, name);
+    }
+}
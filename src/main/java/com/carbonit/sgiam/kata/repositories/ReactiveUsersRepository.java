@@ -0,0 +1,91 @@
+package com.carbonit.sgiam.kata.repositories;
+
+import com.carbonit.sgiam.kata.generators.UuidStrategy;
+import com.carbonit.sgiam.kata.models.User;
+import com.carbonit.sgiam.kata.utils.Uuids;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Non blocking access to the user table through R2DBC, the rows are mapped by hand as the table layout is owned by the
+ * JPA entity.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveUsersRepository {
+
+    private static final String COLUMNS = "SELECT id, name, version FROM users";
+
+    private final DatabaseClient client;
+    private final UuidStrategy idStrategy;
+
+    ReactiveUsersRepository(DatabaseClient client, @Value("${spring.jpa.properties.sgiam.user-id.strategy}") String idStrategy) {
+        this.client = client;
+        this.idStrategy = UuidStrategy.fromSetting(idStrategy);
+    }
+
+    public Mono<User> findById(final UUID id) {
+        return client.sql(COLUMNS + " WHERE id = :id")
+            .bind("id", Uuids.toBytes(id))
+            .map((row, metadata) -> toUser(row))
+            .one();
+    }
+
+    public Flux<User> findAll() {
+        return client.sql(COLUMNS)
+            .map((row, metadata) -> toUser(row))
+            .all();
+    }
+
+    public Flux<User> findAll(final Pageable pageable) {
+        return client.sql(COLUMNS + " ORDER BY id LIMIT :limit OFFSET :offset")
+            .bind("limit", pageable.getPageSize())
+            .bind("offset", pageable.getOffset())
+            .map((row, metadata) -> toUser(row))
+            .all();
+    }
+
+    public Mono<User> insert(final User user) {
+        User inserted = new User();
+        inserted.setId(idStrategy.generate());
+        inserted.setName(user.getName());
+        inserted.setVersion(0L);
+        return client.sql("INSERT INTO users (id, name, version) VALUES (:id, :name, :version)")
+            .bind("id", Uuids.toBytes(inserted.getId()))
+            .bind("name", inserted.getName())
+            .bind("version", inserted.getVersion())
+            .then()
+            .thenReturn(inserted);
+    }
+
+    public Mono<Integer> updateName(final UUID id, final String name) {
+        return client.sql("UPDATE users SET name = :name, version = version + 1 WHERE id = :id")
+            .bind("name", name)
+            .bind("id", Uuids.toBytes(id))
+            .fetch()
+            .rowsUpdated();
+    }
+
+    public Mono<Integer> deleteById(final UUID id) {
+        return client.sql("DELETE FROM users WHERE id = :id")
+            .bind("id", Uuids.toBytes(id))
+            .fetch()
+            .rowsUpdated();
+    }
+
+    private static User toUser(final Row row) {
+        User user = new User();
+        user.setId(Uuids.fromBytes(row.get("id", byte[].class)));
+        user.setName(row.get("name", String.class));
+        user.setVersion(row.get("version", Long.class));
+        return user;
+    }
+}
@@ -1,9 +1,82 @@
 package com.carbonit.sgiam.kata.repositories;
 
 import com.carbonit.sgiam.kata.models.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
 import java.util.UUID;
 
-public interface UsersRepository extends PagingAndSortingRepository<User, UUID> {
+/**
+ * The lookups run in read-only transactions, which the read replicas serve when they are enabled, apart from the ones
+ * loading the users cache and the versions of the users. The inherited ones already do, as declared by
+ * {@link org.springframework.data.jpa.repository.support.SimpleJpaRepository}.
+ */
+public interface UsersRepository extends PagingAndSortingRepository<User, UUID>, UsersRepositoryCustom {
+
+    @Transactional(readOnly = true)
+    Slice<User> findAllBy(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    Slice<User> findByIdGreaterThan(UUID id, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("select u from User u where u.name > :name or (u.name = :name and u.id > :id)")
+    Slice<User> findByNameAndIdAfter(@Param("name") String name, @Param("id") UUID id, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    Slice<User> findByName(String name, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    Slice<User> findByNameAndIdGreaterThan(String name, UUID id, Pageable pageable);
+
+    /**
+     * @param pattern a LIKE pattern escaped with !, see {@link com.carbonit.sgiam.kata.search.SearchMode#likePrefix(String)}
+     */
+    @Transactional(readOnly = true)
+    @Query("select u from User u where u.name like :pattern escape '!'")
+    Slice<User> findByNamePattern(@Param("pattern") String pattern, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("select u from User u where u.name like :pattern escape '!' and (u.name > :name or (u.name = :name and u.id > :id))")
+    Slice<User> findByNamePatternAndIdAfter(@Param("pattern") String pattern, @Param("name") String name, @Param("id") UUID id,
+        Pageable pageable);
+
+    /**
+     * Reads the user outside of any transaction, so from the primary when the read replicas are enabled: the users
+     * cache is loaded with it and must not keep a user that a lagging replica still has after its deletion.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Query("select u from User u where u.id = :id")
+    Optional<User> findOnPrimaryById(@Param("id") UUID id);
+
+    /**
+     * Reads the version from the primary, as {@link #findOnPrimaryById(UUID)} does, so that an ETag is never compared
+     * with the version of a lagging replica while the user itself comes from the primary.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    /**
+     * @return the number of updated users, 0 when there is no user with this id
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.name = :name, u.version = u.version + 1 where u.id = :id")
+    int updateName(@Param("id") UUID id, @Param("name") String name);
+
+    /**
+     * @return the number of deleted users, 0 when there is no user with this id
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(@Param("id") UUID id);
 }
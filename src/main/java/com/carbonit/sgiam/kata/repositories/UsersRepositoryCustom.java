@@ -0,0 +1,47 @@
+package com.carbonit.sgiam.kata.repositories;
+
+import com.carbonit.sgiam.kata.models.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+public interface UsersRepositoryCustom {
+
+    /**
+     * Streams every user through a forward-only cursor. Each entity is detached once emitted so the
+     * persistence context does not grow with the table. The stream must be consumed inside a transaction
+     * and closed by the caller.
+     */
+    Stream<User> streamAll();
+
+    /**
+     * Reads the id and name of every user through a forward-only JDBC cursor, in a read-only transaction. No entity is
+     * created and the persistence context is left untouched.
+     * @return the number of users read
+     */
+    long forEachIdAndName(BiConsumer<UUID, String> consumer);
+
+    /**
+     * Persists the given new users in a single transaction, flushing them by JDBC batches.
+     * @return the given users, with their generated ids
+     */
+    List<User> insertAll(List<User> users);
+
+    /**
+     * Deletes the users with the given ids in a single transaction, with one locking select and one set-based delete.
+     * @return the ids of the deleted users, the others did not exist
+     */
+    Set<UUID> deleteExisting(Collection<UUID> ids);
+
+    /**
+     * Renames the users with the given ids in a single transaction, the updates being flushed by JDBC batches and
+     * bumping the versions.
+     * @return the ids of the renamed users, the others did not exist
+     */
+    Set<UUID> renameExisting(Map<UUID, String> names);
+}
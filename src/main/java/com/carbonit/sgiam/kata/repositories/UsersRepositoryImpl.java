@@ -0,0 +1,115 @@
+package com.carbonit.sgiam.kata.repositories;
+
+import com.carbonit.sgiam.kata.models.User;
+import com.carbonit.sgiam.kata.utils.Uuids;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
+
+public class UsersRepositoryImpl implements UsersRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int fetchSize;
+    private final int batchSize;
+
+    UsersRepositoryImpl(@Value("${users.stream.fetch-size}") final int fetchSize,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") final int batchSize) {
+        this.fetchSize = fetchSize;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        return entityManager.createQuery("select u from User u", User.class)
+            .setHint(FETCH_SIZE, fetchSize)
+            .setHint(READ_ONLY, true)
+            .getResultStream()
+            .peek(entityManager::detach);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachIdAndName(final BiConsumer<UUID, String> consumer) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("select id, name from users",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                try (ResultSet rows = statement.executeQuery()) {
+                    long count = 0;
+                    while (rows.next()) {
+                        consumer.accept(Uuids.fromBytes(rows.getBytes(1)), rows.getString(2));
+                        count++;
+                    }
+                    return count;
+                }
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public List<User> insertAll(final List<User> users) {
+        for (int i = 0; i < users.size(); i++) {
+            entityManager.persist(users.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return users;
+    }
+
+    @Override
+    @Transactional
+    public Set<UUID> deleteExisting(final Collection<UUID> ids) {
+        Set<UUID> existing = new HashSet<>();
+        for (User user : lockAll(ids)) existing.add(user.getId());
+        if (!existing.isEmpty()) {
+            entityManager.createQuery("delete from User u where u.id in :ids")
+                .setParameter("ids", existing)
+                .executeUpdate();
+        }
+        entityManager.clear();
+        return existing;
+    }
+
+    @Override
+    @Transactional
+    public Set<UUID> renameExisting(final Map<UUID, String> names) {
+        Set<UUID> existing = new HashSet<>();
+        for (User user : lockAll(names.keySet())) {
+            user.setName(names.get(user.getId()));
+            existing.add(user.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return existing;
+    }
+
+    /**
+     * The rows stay locked until the transaction ends, so the ids read are the ones written
+     */
+    private List<User> lockAll(final Collection<UUID> ids) {
+        if (ids.isEmpty()) return Collections.emptyList();
+        return entityManager.createQuery("select u from User u where u.id in :ids", User.class)
+            .setParameter("ids", ids)
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .getResultList();
+    }
+}
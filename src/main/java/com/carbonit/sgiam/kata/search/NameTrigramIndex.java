@@ -0,0 +1,342 @@
+package com.carbonit.sgiam.kata.search;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.models.User;
+import com.carbonit.sgiam.kata.repositories.UsersRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index of the user name trigrams, for substring and typo tolerant lookups the database can only
+ * answer with a full scan.
+ *
+ * Every indexed name gets a dense document number, appended in increasing order so the posting lists stay sorted and
+ * can be merged without any per document counter. A renamed or deleted user only leaves a tombstone behind, the index
+ * is compacted once the tombstones outnumber the live documents.
+ *
+ * Built from the database when the application is ready, then kept in sync by the service after each committed write.
+ * Searches share a read lock, writes and rebuilds take the write lock.
+ */
+@Component
+@Profile("!reactive")
+public class NameTrigramIndex implements MeterBinder {
+
+    public static final int MIN_QUERY_LENGTH = 3;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NameTrigramIndex.class);
+    private static final char BOUNDARY = '\0';
+    private static final long TRIGRAM_MARKER = 1L << 48;
+    private static final double CONTAINS_BONUS = 1;
+    private static final int MIN_COMPACTION = 1024;
+    private static final int INITIAL_DOCUMENTS = 1024;
+    private static final int STRING_OVERHEAD = 40;
+
+    private final UsersRepository repository;
+    private final double minSimilarity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] mostBits;
+    private long[] leastBits;
+    private String[] names;
+    private short[] trigramCounts;
+    private BitSet deleted;
+    private int documents;
+    private int deletedCount;
+    private long nameBytes;
+    private UuidIntMap documentIds;
+    private TrigramPostings postings;
+    private volatile long lastRebuildNanos;
+
+    NameTrigramIndex(UsersRepository repository, @Value("${users.search.min-similarity}") final double minSimilarity) {
+        this.repository = repository;
+        this.minSimilarity = minSimilarity;
+        clear(INITIAL_DOCUMENTS);
+    }
+
+    /**
+     * Reloads every user name from the database. Writes wait for the rebuild, so a user committed while the names are
+     * streamed is indexed right after and none is missed. The transaction is not read-only so that the names come from
+     * the primary: a lagging replica would lose the users indexed before the rebuild and not replicated yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        withWriteLock(() -> {
+            long start = System.nanoTime();
+            clear(INITIAL_DOCUMENTS);
+            try (Stream<User> users = repository.streamAll()) {
+                users.forEach(user -> append(user.getId(), user.getName()));
+            }
+            lastRebuildNanos = System.nanoTime() - start;
+            LOGGER.info("Indexed {} user names in {} ms, {} bytes", liveDocuments(), TimeUnit.NANOSECONDS.toMillis(lastRebuildNanos),
+                footprint());
+            return null;
+        });
+    }
+
+    /**
+     * Indexes the user, replacing its previous name if it was already indexed.
+     */
+    public void put(final UUID id, final String name) {
+        withWriteLock(() -> {
+            delete(id);
+            append(id, name);
+            compactIfNeeded();
+            return null;
+        });
+    }
+
+    public void remove(final UUID id) {
+        withWriteLock(() -> {
+            delete(id);
+            compactIfNeeded();
+            return null;
+        });
+    }
+
+    /**
+     * Ranks the users by the Dice coefficient of their name trigrams with the query ones, the names containing the
+     * query case-insensitively coming first. Names below the minimum similarity are left out unless they contain it.
+     *
+     * @param query at least {@link #MIN_QUERY_LENGTH} characters
+     * @return at most limit users, best match first, without version
+     */
+    public List<UserDTO> search(final String query, final int limit) {
+        if (limit <= 0) return Collections.emptyList();
+        String normalized = query.toLowerCase(Locale.ROOT);
+        long[] queryTrigrams = trigrams(normalized);
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Cursor> cursors = new PriorityQueue<>(Math.max(1, queryTrigrams.length));
+            for (long trigram : queryTrigrams) {
+                int slot = postings.find(trigram);
+                if (slot >= 0) cursors.add(new Cursor(postings.list(slot), postings.length(slot)));
+            }
+            PriorityQueue<Candidate> best = new PriorityQueue<>(Math.min(limit, documents) + 1);
+            while (!cursors.isEmpty()) {
+                int document = cursors.peek().document();
+                int common = 0;
+                while (!cursors.isEmpty() && cursors.peek().document() == document) {
+                    Cursor cursor = cursors.poll();
+                    common++;
+                    if (cursor.advance()) cursors.add(cursor);
+                }
+                if (deleted.get(document)) continue;
+                double score = 2.0 * common / (queryTrigrams.length + trigramCounts[document]);
+                // a substring shares all the query trigrams but the two on its boundaries
+                if (common >= queryTrigrams.length - 2 && containsIgnoreCase(names[document], normalized)) {
+                    score += CONTAINS_BONUS;
+                } else if (score < minSimilarity) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(new Candidate(document, score));
+                } else if (score > best.peek().score) {
+                    best.poll();
+                    best.add(new Candidate(document, score));
+                }
+            }
+            List<Candidate> ranked = new ArrayList<>(best);
+            ranked.sort(Collections.reverseOrder());
+            List<UserDTO> users = new ArrayList<>(ranked.size());
+            for (Candidate candidate : ranked) {
+                UserDTO user = new UserDTO();
+                user.setId(new UUID(mostBits[candidate.document], leastBits[candidate.document]));
+                user.setName(names[candidate.document]);
+                users.add(user);
+            }
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int liveDocuments() {
+        return withReadLock(() -> documents - deletedCount);
+    }
+
+    public int trigrams() {
+        return withReadLock(postings::size);
+    }
+
+    /**
+     * @return an estimate of the heap held by the index, in bytes
+     */
+    public long footprint() {
+        return withReadLock(() -> (long) mostBits.length * Long.BYTES * 2 + (long) names.length * Integer.BYTES
+            + (long) trigramCounts.length * Short.BYTES + deleted.size() / Byte.SIZE + nameBytes
+            + documentIds.footprint() + postings.footprint());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.name.index.documents", this, NameTrigramIndex::liveDocuments)
+            .description("Number of user names in the trigram index")
+            .register(registry);
+        Gauge.builder("users.name.index.trigrams", this, NameTrigramIndex::trigrams)
+            .description("Number of distinct trigrams in the index")
+            .register(registry);
+        Gauge.builder("users.name.index.memory", this, NameTrigramIndex::footprint)
+            .description("Estimated heap held by the trigram index")
+            .baseUnit(BaseUnits.BYTES)
+            .register(registry);
+        TimeGauge.builder("users.name.index.rebuild", this, TimeUnit.NANOSECONDS, index -> index.lastRebuildNanos)
+            .description("Duration of the last rebuild from the database")
+            .register(registry);
+    }
+
+    private void append(final UUID id, final String name) {
+        if (name == null) return;
+        if (documents == mostBits.length) grow(documents + (documents >> 1));
+        int document = documents++;
+        mostBits[document] = id.getMostSignificantBits();
+        leastBits[document] = id.getLeastSignificantBits();
+        names[document] = name;
+        long[] nameTrigrams = trigrams(name.toLowerCase(Locale.ROOT));
+        trigramCounts[document] = (short) Math.min(nameTrigrams.length, Short.MAX_VALUE);
+        for (long trigram : nameTrigrams) postings.add(trigram, document);
+        documentIds.put(mostBits[document], leastBits[document], document);
+        nameBytes += STRING_OVERHEAD + name.length();
+    }
+
+    private void delete(final UUID id) {
+        int document = documentIds.remove(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (document == UuidIntMap.ABSENT) return;
+        deleted.set(document);
+        deletedCount++;
+        nameBytes -= STRING_OVERHEAD + names[document].length();
+        names[document] = null;
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount < MIN_COMPACTION || deletedCount < documents - deletedCount) return;
+        long[] oldMostBits = mostBits;
+        long[] oldLeastBits = leastBits;
+        String[] oldNames = names;
+        BitSet oldDeleted = deleted;
+        int oldDocuments = documents;
+        clear(Math.max(INITIAL_DOCUMENTS, oldDocuments - deletedCount));
+        for (int document = oldDeleted.nextClearBit(0); document < oldDocuments; document = oldDeleted.nextClearBit(document + 1)) {
+            append(new UUID(oldMostBits[document], oldLeastBits[document]), oldNames[document]);
+        }
+    }
+
+    private void clear(final int capacity) {
+        mostBits = new long[capacity];
+        leastBits = new long[capacity];
+        names = new String[capacity];
+        trigramCounts = new short[capacity];
+        deleted = new BitSet();
+        documents = 0;
+        deletedCount = 0;
+        nameBytes = 0;
+        documentIds = new UuidIntMap(capacity);
+        postings = new TrigramPostings();
+    }
+
+    private void grow(final int capacity) {
+        mostBits = Arrays.copyOf(mostBits, capacity);
+        leastBits = Arrays.copyOf(leastBits, capacity);
+        names = Arrays.copyOf(names, capacity);
+        trigramCounts = Arrays.copyOf(trigramCounts, capacity);
+    }
+
+    private <T> T withReadLock(final Supplier<T> supplier) {
+        lock.readLock().lock();
+        try {
+            return supplier.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> T withWriteLock(final Supplier<T> supplier) {
+        lock.writeLock().lock();
+        try {
+            return supplier.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the distinct trigrams of the lower-cased text padded with a boundary on both sides, sorted
+     */
+    static long[] trigrams(final String text) {
+        String padded = BOUNDARY + text + BOUNDARY;
+        long[] trigrams = new long[Math.max(0, padded.length() - 2)];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = TRIGRAM_MARKER | (long) padded.charAt(i) << 32 | (long) padded.charAt(i + 1) << 16 | padded.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) trigrams[distinct++] = trigrams[i];
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    private static boolean containsIgnoreCase(final String name, final String query) {
+        for (int from = 0; from + query.length() <= name.length(); from++) {
+            if (name.regionMatches(true, from, query, 0, query.length())) return true;
+        }
+        return false;
+    }
+
+    private static final class Cursor implements Comparable<Cursor> {
+        private final int[] list;
+        private final int length;
+        private int position;
+
+        Cursor(final int[] list, final int length) {
+            this.list = list;
+            this.length = length;
+        }
+
+        int document() {
+            return list[position];
+        }
+
+        boolean advance() {
+            return ++position < length;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return Integer.compare(document(), other.document());
+        }
+    }
+
+    private static final class Candidate implements Comparable<Candidate> {
+        private final int document;
+        private final double score;
+
+        Candidate(final int document, final double score) {
+            this.document = document;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            return Double.compare(score, other.score);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.carbonit.sgiam.kata.search;
+
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_SEARCH_MODE;
+
+/**
+ * How a searched name is matched against the user names, both modes are answered by the index on the name.
+ */
+public enum SearchMode {
+    EXACT,
+    PREFIX,
+    ;
+
+    private static final char LIKE_ESCAPE = '!';
+
+    /**
+     * @return the LIKE pattern matching the names starting with the prefix, its wildcards escaped with {@value #LIKE_ESCAPE}
+     */
+    public static String likePrefix(final String prefix) {
+        StringBuilder pattern = new StringBuilder(prefix.length() + 8);
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) pattern.append(LIKE_ESCAPE);
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    public static SearchMode fromParameter(final String value) throws ParameterNotValidException {
+        for (SearchMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) return mode;
+        }
+        throw new ParameterNotValidException(INVALID_SEARCH_MODE, value);
+    }
+}
@@ -0,0 +1,102 @@
+package com.carbonit.sgiam.kata.search;
+
+import java.util.Arrays;
+
+/**
+ * Inverted lists from trigrams to the documents containing them. The trigrams are open addressing long keys and
+ * every list is a bare int array, ascending as the documents are only ever appended with increasing numbers.
+ */
+final class TrigramPostings {
+
+    private static final long EMPTY = 0;
+    private static final int MIN_CAPACITY = 16;
+    private static final int INITIAL_LIST_LENGTH = 4;
+    private static final int ARRAY_HEADER = 16;
+
+    private long[] keys;
+    private int[][] lists;
+    private int[] lengths;
+    private int mask;
+    private int size;
+    private long listBytes;
+
+    TrigramPostings() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param trigram a non zero trigram key
+     */
+    void add(final long trigram, final int document) {
+        if ((size + 1) * 2 > keys.length) resize(keys.length * 2);
+        int slot = slot(trigram);
+        while (keys[slot] != EMPTY && keys[slot] != trigram) slot = (slot + 1) & mask;
+        if (keys[slot] == EMPTY) {
+            keys[slot] = trigram;
+            lists[slot] = new int[INITIAL_LIST_LENGTH];
+            listBytes += ARRAY_HEADER + INITIAL_LIST_LENGTH * Integer.BYTES;
+            size++;
+        }
+        int[] list = lists[slot];
+        if (lengths[slot] == list.length) {
+            int[] grown = Arrays.copyOf(list, list.length + (list.length >> 1) + 1);
+            listBytes += (long) (grown.length - list.length) * Integer.BYTES;
+            lists[slot] = list = grown;
+        }
+        list[lengths[slot]++] = document;
+    }
+
+    /**
+     * @return the slot of the trigram to read its list from, -1 when no document contains it
+     */
+    int find(final long trigram) {
+        for (int slot = slot(trigram); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == trigram) return slot;
+        }
+        return -1;
+    }
+
+    int[] list(final int slot) {
+        return lists[slot];
+    }
+
+    int length(final int slot) {
+        return lengths[slot];
+    }
+
+    long footprint() {
+        return (long) keys.length * Long.BYTES + (long) lists.length * Integer.BYTES + (long) lengths.length * Integer.BYTES
+            + listBytes;
+    }
+
+    private int slot(final long trigram) {
+        long hash = trigram * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize(final int capacity) {
+        long[] oldKeys = keys;
+        int[][] oldLists = lists;
+        int[] oldLengths = lengths;
+        allocate(capacity);
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldKeys[old] == EMPTY) continue;
+            int slot = slot(oldKeys[old]);
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[old];
+            lists[slot] = oldLists[old];
+            lengths[slot] = oldLengths[old];
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        lists = new int[capacity][];
+        lengths = new int[capacity];
+        mask = capacity - 1;
+    }
+}
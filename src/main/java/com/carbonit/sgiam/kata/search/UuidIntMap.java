@@ -0,0 +1,110 @@
+package com.carbonit.sgiam.kata.search;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from uuids, stored as their two halves, to non negative ints. No boxing and no entry objects,
+ * the keys sit in a long array and the values in an int array, kept at most half full.
+ */
+final class UuidIntMap {
+
+    static final int ABSENT = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    UuidIntMap(final int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(final long most, final long least) {
+        int slot = find(most, least);
+        return slot < 0 ? ABSENT : values[slot];
+    }
+
+    void put(final long most, final long least, final int value) {
+        if ((size + 1) * 2 > values.length) resize(values.length * 2);
+        int slot = slot(most, least);
+        while (values[slot] != ABSENT) {
+            if (keys[2 * slot] == most && keys[2 * slot + 1] == least) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[2 * slot] = most;
+        keys[2 * slot + 1] = least;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * @return the removed value, {@link #ABSENT} when there was none
+     */
+    int remove(final long most, final long least) {
+        int gap = find(most, least);
+        if (gap < 0) return ABSENT;
+        int removed = values[gap];
+        // backward shift, the entries probed past the gap move back so no lookup stops early on an empty slot
+        for (int next = (gap + 1) & mask; values[next] != ABSENT; next = (next + 1) & mask) {
+            int ideal = slot(keys[2 * next], keys[2 * next + 1]);
+            if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                keys[2 * gap] = keys[2 * next];
+                keys[2 * gap + 1] = keys[2 * next + 1];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        values[gap] = ABSENT;
+        size--;
+        return removed;
+    }
+
+    long footprint() {
+        return (long) keys.length * Long.BYTES + (long) values.length * Integer.BYTES;
+    }
+
+    private int find(final long most, final long least) {
+        for (int slot = slot(most, least); values[slot] != ABSENT; slot = (slot + 1) & mask) {
+            if (keys[2 * slot] == most && keys[2 * slot + 1] == least) return slot;
+        }
+        return -1;
+    }
+
+    private int slot(final long most, final long least) {
+        long hash = (most * 0x9E3779B97F4A7C15L) ^ least;
+        hash ^= hash >>> 32;
+        hash *= 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 29)) & mask;
+    }
+
+    private void resize(final int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int slot = 0; slot < oldValues.length; slot++) {
+            if (oldValues[slot] != ABSENT) put(oldKeys[2 * slot], oldKeys[2 * slot + 1], oldValues[slot]);
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity * 2];
+        values = new int[capacity];
+        Arrays.fill(values, ABSENT);
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(final int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) capacity <<= 1;
+        return capacity;
+    }
+}
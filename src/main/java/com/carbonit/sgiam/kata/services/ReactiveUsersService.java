@@ -0,0 +1,26 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Non blocking counterpart of {@link UsersService}, the missing users are signaled as a
+ * {@link com.carbonit.sgiam.kata.exceptions.UserNotFoundException} error.
+ */
+public interface ReactiveUsersService {
+    public Mono<UserDTO> createUser(final UserDTO userDTO);
+
+    public Mono<UserDTO> findUserById(final UUID id);
+
+    public Flux<UserDTO> findAllUsers();
+
+    public Flux<UserDTO> filterUsers(Pageable pageable);
+
+    public Mono<UserDTO> updateUser(final UUID id, final UserDTO userDTO);
+
+    public Mono<UserDTO> deleteUser(final UUID id);
+}
@@ -0,0 +1,69 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.exceptions.UserNotFoundException;
+import com.carbonit.sgiam.kata.mappers.UserMapper;
+import com.carbonit.sgiam.kata.mappers.UserMapperImpl;
+import com.carbonit.sgiam.kata.repositories.ReactiveUsersRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@Service
+@Profile("reactive")
+public class ReactiveUsersServiceImpl implements ReactiveUsersService {
+
+    private final ReactiveUsersRepository repository;
+    private final UserMapper userMapper = new UserMapperImpl();
+
+    ReactiveUsersServiceImpl(ReactiveUsersRepository repository){
+        this.repository = repository;
+    }
+
+    public Mono<UserDTO> createUser(final UserDTO userDTO) {
+        return repository.insert(userMapper.toEntity(userDTO))
+                .map(userMapper::toDto);
+    }
+
+    public Mono<UserDTO> findUserById(final UUID id) {
+        return repository.findById(id)
+                .switchIfEmpty(notFound(id))
+                .map(userMapper::toDto);
+    }
+
+    public Flux<UserDTO> findAllUsers() {
+        return repository.findAll()
+                .map(userMapper::toDto);
+    }
+
+    public Flux<UserDTO> filterUsers(final Pageable pageable) {
+        return repository.findAll(pageable)
+                .map(userMapper::toDto);
+    }
+
+    public Mono<UserDTO> updateUser(final UUID id, final UserDTO userDTO) {
+        return repository.updateName(id, userDTO.getName())
+                .filter(updated -> updated > 0)
+                .switchIfEmpty(notFound(id))
+                .map(updated -> {
+                    UserDTO user = userMapper.fromId(id);
+                    user.setName(userDTO.getName());
+                    return user;
+                });
+    }
+
+    public Mono<UserDTO> deleteUser(final UUID id) {
+        return repository.deleteById(id)
+                .filter(deleted -> deleted > 0)
+                .switchIfEmpty(notFound(id))
+                .map(deleted -> userMapper.fromId(id));
+    }
+
+    private static <T> Mono<T> notFound(final UUID id) {
+        return Mono.defer(() -> Mono.error(new UserNotFoundException(id.toString())));
+    }
+}
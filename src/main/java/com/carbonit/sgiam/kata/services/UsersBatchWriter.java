@@ -0,0 +1,121 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.dtos.BatchItemResultDTO;
+import com.carbonit.sgiam.kata.dtos.BulkResultDTO;
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.mappers.UserMapper;
+import com.carbonit.sgiam.kata.mappers.UserMapperImpl;
+import com.carbonit.sgiam.kata.models.User;
+import com.carbonit.sgiam.kata.repositories.UsersRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Inserts, deletes and renames users by chunks, each chunk in its own transaction and sent to the database as
+ * set-based statements or JDBC batches. A failing chunk is reported item by item and does not prevent the following
+ * chunks from being written.
+ */
+@Component
+@Profile("!reactive")
+public class UsersBatchWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UsersBatchWriter.class);
+
+    private final UsersRepository repository;
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final int chunkSize;
+
+    UsersBatchWriter(UsersRepository repository, @Value("${users.batch.chunk-size}") final int chunkSize) {
+        this.repository = repository;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return one result per given user, in the same order, indexed by position in the given list
+     */
+    public List<BatchItemResultDTO> insert(final List<UserDTO> userDTOs) {
+        List<BatchItemResultDTO> results = new ArrayList<>(userDTOs.size());
+        for (int from = 0; from < userDTOs.size(); from += chunkSize) {
+            insertChunk(userDTOs.subList(from, Math.min(from + chunkSize, userDTOs.size())), from, results);
+        }
+        return results;
+    }
+
+    private void insertChunk(final List<UserDTO> chunk, final int offset, final List<BatchItemResultDTO> results) {
+        List<User> users = new ArrayList<>(chunk.size());
+        for (UserDTO userDTO : chunk) {
+            User user = userMapper.toEntity(userDTO);
+            user.setId(null);
+            users.add(user);
+        }
+        try {
+            List<User> inserted = repository.insertAll(users);
+            for (int i = 0; i < inserted.size(); i++) {
+                results.add(result(offset + i, BatchItemResultDTO.Status.CREATED, userMapper.toDto(inserted.get(i)), null));
+            }
+        } catch (DataAccessException e) {
+            LOGGER.warn("Failed to insert the users {} to {}", offset, offset + chunk.size() - 1, e);
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(result(offset + i, BatchItemResultDTO.Status.FAILED, chunk.get(i), e.getMostSpecificCause().getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Deletes the distinct given ids by chunks of one IN list each.
+     * @return the number of deleted users and the ids not found or whose chunk failed
+     */
+    public BulkResultDTO delete(final Collection<UUID> ids) {
+        List<UUID> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        return writeByChunks(distinct, repository::deleteExisting, "delete");
+    }
+
+    /**
+     * Renames the distinct given ids by chunks, the last name wins when an id is given several times.
+     * @return the number of renamed users and the ids not found or whose chunk failed
+     */
+    public BulkResultDTO rename(final List<UserDTO> userDTOs) {
+        Map<UUID, String> names = new LinkedHashMap<>();
+        for (UserDTO userDTO : userDTOs) names.put(userDTO.getId(), userDTO.getName());
+        return writeByChunks(new ArrayList<>(names.keySet()), chunk -> {
+            Map<UUID, String> chunkNames = new HashMap<>();
+            for (UUID id : chunk) chunkNames.put(id, names.get(id));
+            return repository.renameExisting(chunkNames);
+        }, "rename");
+    }
+
+    private BulkResultDTO writeByChunks(final List<UUID> ids, final Function<List<UUID>, Set<UUID>> writer, final String operation) {
+        BulkResultDTO result = new BulkResultDTO();
+        result.setRequested(ids.size());
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            try {
+                Set<UUID> written = writer.apply(chunk);
+                result.setApplied(result.getApplied() + written.size());
+                for (UUID id : chunk) {
+                    if (!written.contains(id)) result.getNotFound().add(id);
+                }
+            } catch (DataAccessException e) {
+                LOGGER.warn("Failed to {} the users {} to {}", operation, from, from + chunk.size() - 1, e);
+                result.getFailed().addAll(chunk);
+            }
+        }
+        return result;
+    }
+
+    static BatchItemResultDTO result(final int index, final BatchItemResultDTO.Status status, final UserDTO user, final String message) {
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.setIndex(index);
+        result.setStatus(status);
+        result.setUser(user);
+        result.setMessage(message);
+        return result;
+    }
+}
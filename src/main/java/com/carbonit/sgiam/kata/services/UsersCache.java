@@ -0,0 +1,77 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of the mapped users, evicted by size and by age.
+ *
+ * A load runs atomically for its key and an invalidation of that key waits for it to complete, so as long as
+ * writers invalidate once their transaction is committed, a user deleted by this JVM is never served again.
+ */
+@Component
+public class UsersCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "users";
+
+    private final Cache<UUID, UserDTO> cache;
+
+    public UsersCache(@Value("${users.cache.maximum-size}") final long maximumSize,
+            @Value("${users.cache.expire-after-write}") final Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * @return a copy of the cached user, loaded first when absent. Nothing is cached when the loader throws.
+     */
+    public UserDTO get(final UUID id, final Function<UUID, UserDTO> loader) {
+        return copy(cache.get(id, loader));
+    }
+
+    /**
+     * @return a copy of the cached user, null when it is not cached
+     */
+    public UserDTO getIfPresent(final UUID id) {
+        UserDTO user = cache.getIfPresent(id);
+        return user != null ? copy(user) : null;
+    }
+
+    public void invalidate(final UUID id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * @return the hit, miss and eviction counters since startup
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private static UserDTO copy(final UserDTO user) {
+        UserDTO copy = new UserDTO();
+        copy.setId(user.getId());
+        copy.setName(user.getName());
+        copy.setVersion(user.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,39 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.repositories.UsersRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the number of users in memory so totals can be reported without a {@code COUNT(*)} per request.
+ * The table is counted once, at startup before any request is served so that no creation or deletion can slip
+ * between the count and its first update, then the value is maintained by the creations and deletions going through
+ * this instance.
+ */
+@Component
+@Profile("!reactive")
+public class UsersCounter {
+
+    private final UsersRepository repository;
+    private final AtomicLong count = new AtomicLong();
+
+    UsersCounter(UsersRepository repository) {
+        this.repository = repository;
+    }
+
+    @PostConstruct
+    void init() {
+        count.set(repository.count());
+    }
+
+    public long get() {
+        return count.get();
+    }
+
+    public void add(final long delta) {
+        count.updateAndGet(current -> Math.max(0, current + delta));
+    }
+}
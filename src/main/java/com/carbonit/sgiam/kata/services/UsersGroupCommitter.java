@@ -0,0 +1,181 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.mappers.UserMapper;
+import com.carbonit.sgiam.kata.mappers.UserMapperImpl;
+import com.carbonit.sgiam.kata.models.User;
+import com.carbonit.sgiam.kata.repositories.UsersRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the concurrent single user creations into batched inserts, one transaction and one commit per batch.
+ *
+ * The creating threads queue their user and wait while a flusher thread takes the first one, then the ones arriving
+ * within the window, up to the maximum batch size, and inserts them together. Under load the next batch fills up while
+ * the previous one commits, an idle system only waits the window. When a batch fails its users are inserted again one
+ * by one, so a failing user only fails its own creation. A full queue makes the caller insert its user itself.
+ */
+@Component
+@Profile("!reactive")
+public class UsersGroupCommitter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UsersGroupCommitter.class);
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final UsersRepository repository;
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final BlockingQueue<Pending> queue;
+    private final DistributionSummary batchSizes;
+    private final Thread flusher;
+    private volatile boolean running;
+
+    UsersGroupCommitter(UsersRepository repository, @Value("${users.group-commit.enabled}") final boolean enabled,
+            @Value("${users.group-commit.window}") final Duration window,
+            @Value("${users.group-commit.max-batch}") final int maxBatch,
+            @Value("${users.group-commit.queue-capacity}") final int queueCapacity, MeterRegistry registry) {
+        this.repository = repository;
+        this.batchSizes = registry.summary("users.group-commit.batch");
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.flusher = new Thread(this::flushLoop, "users-group-commit");
+        this.flusher.setDaemon(true);
+        if (enabled) {
+            running = true;
+            flusher.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Waits for the batch holding the user to be committed.
+     * @throws DataAccessException when the user itself could not be inserted
+     */
+    public UserDTO create(final UserDTO userDTO) {
+        Pending pending = new Pending(toEntity(userDTO));
+        if (!running || !queue.offer(pending)) return insertOne(pending.user);
+        // closed meanwhile, after the queue was drained for the last time
+        if (!running && queue.remove(pending)) return insertOne(pending.user);
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private void flushLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                fill(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Adds the users queued within the window after the first one, without exceeding the maximum batch size
+     */
+    private void fill(final List<Pending> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() == maxBatch || remaining <= 0) return;
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) return;
+            batch.add(next);
+        }
+    }
+
+    void flush(final List<Pending> batch) {
+        batchSizes.record(batch.size());
+        List<User> users = new ArrayList<>(batch.size());
+        for (Pending pending : batch) users.add(pending.user);
+        try {
+            List<User> inserted = repository.insertAll(users);
+            for (int i = 0; i < batch.size(); i++) batch.get(i).result.complete(userMapper.toDto(inserted.get(i)));
+        } catch (DataAccessException e) {
+            LOGGER.warn("Failed to insert a batch of {} users, inserting them one by one", batch.size(), e);
+            for (Pending pending : batch) {
+                try {
+                    pending.result.complete(insertOne(toEntity(userMapper.toDto(pending.user))));
+                } catch (RuntimeException itemFailure) {
+                    pending.result.completeExceptionally(itemFailure);
+                }
+            }
+        } catch (RuntimeException e) {
+            for (Pending pending : batch) pending.result.completeExceptionally(e);
+        }
+    }
+
+    private UserDTO insertOne(final User user) {
+        return userMapper.toDto(repository.save(user));
+    }
+
+    /**
+     * The ids and versions are set on insert, the entity of a failed batch is copied before being inserted again
+     */
+    private User toEntity(final UserDTO userDTO) {
+        User user = userMapper.toEntity(userDTO);
+        user.setId(null);
+        user.setVersion(null);
+        return user;
+    }
+
+    /**
+     * Stops the flusher and commits what is left in the queue
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!running) return;
+        running = false;
+        flusher.join();
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        for (int from = 0; from < left.size(); from += maxBatch) {
+            flush(left.subList(from, Math.min(from + maxBatch, left.size())));
+        }
+    }
+
+    static final class Pending {
+        final User user;
+        final CompletableFuture<UserDTO> result = new CompletableFuture<>();
+
+        Pending(final User user) {
+            this.user = user;
+        }
+    }
+}
@@ -1,23 +1,88 @@
 package com.carbonit.sgiam.kata.services;
 
+import com.carbonit.sgiam.kata.dtos.BatchItemResultDTO;
+import com.carbonit.sgiam.kata.dtos.BulkResultDTO;
 import com.carbonit.sgiam.kata.dtos.UserDTO;
 import com.carbonit.sgiam.kata.exceptions.UserNotFoundException;
-import org.springframework.data.domain.Page;
+import com.carbonit.sgiam.kata.pagination.UserCursor;
+import com.carbonit.sgiam.kata.search.SearchMode;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public interface UsersService {
     public UserDTO createUser(final UserDTO userDTO);
 
+    /**
+     * Creates the users by chunked batch inserts.
+     * @return one result per given user, in the same order, indexed by position in the given list
+     */
+    public List<BatchItemResultDTO> createUsers(final List<UserDTO> userDTOs);
+
     public UserDTO findUserById(final UUID id) throws UserNotFoundException;
 
+    /**
+     * @return the version of the user, read from the cache when possible and without loading the user otherwise, empty
+     * when the user does not exist or has no version yet
+     */
+    public OptionalLong findUserVersion(final UUID id);
+
     public List<UserDTO> findAllUsers();
 
-    public Page<UserDTO> filterUsers(Pageable pageable);
+    /**
+     * Maps every user one at a time and hands it to the consumer while the underlying cursor is still open.
+     * @return the number of users streamed
+     */
+    public long streamAllUsers(final Consumer<UserDTO> consumer);
+
+    /**
+     * Hands the id and name of every user to the consumer straight from a forward-only cursor, without mapping them.
+     * @return the number of users exported
+     */
+    public long exportUsers(final BiConsumer<UUID, String> consumer);
+
+    /**
+     * Returns one page of users without counting the table, {@link Slice#hasNext()} is computed by reading
+     * one extra row.
+     */
+    public Slice<UserDTO> filterUsers(Pageable pageable);
+
+    public long countUsers();
+
+    /**
+     * Returns the users positioned strictly after the cursor in the sort key order, or the first ones when
+     * there is no cursor. The cost of a page does not depend on how deep in the listing it is.
+     */
+    public Slice<UserDTO> seekUsers(final UserCursor.SortKey sortKey, final UserCursor after, final int size);
+
+    /**
+     * Returns the users whose name matches, in name then id order, positioned strictly after the cursor when there is one.
+     */
+    public Slice<UserDTO> searchUsers(final String name, final SearchMode mode, final UserCursor after, final int size);
+
+    /**
+     * Returns at most limit users whose name contains or resembles the query, best match first.
+     */
+    public List<UserDTO> rankUsers(final String query, final int limit);
 
     public UserDTO updateUser(final UUID id, final UserDTO userDTO) throws UserNotFoundException;
 
+    /**
+     * Renames the given users by chunked batch updates, the names are expected to be valid.
+     * @return the number of renamed users and the ids not found or not renamed
+     */
+    public BulkResultDTO renameUsers(final List<UserDTO> userDTOs);
+
     public UserDTO deleteUser(final UUID id) throws UserNotFoundException;
+
+    /**
+     * Deletes the given users by chunked set-based deletes.
+     * @return the number of deleted users and the ids not found or not deleted
+     */
+    public BulkResultDTO deleteUsers(final List<UUID> ids);
 }
@@ -1,66 +1,218 @@
 package com.carbonit.sgiam.kata.services;
 
+import com.carbonit.sgiam.kata.dtos.BatchItemResultDTO;
+import com.carbonit.sgiam.kata.dtos.BulkResultDTO;
 import com.carbonit.sgiam.kata.dtos.UserDTO;
 import com.carbonit.sgiam.kata.exceptions.UserNotFoundException;
 import com.carbonit.sgiam.kata.mappers.UserMapper;
 import com.carbonit.sgiam.kata.mappers.UserMapperImpl;
 import com.carbonit.sgiam.kata.models.User;
+import com.carbonit.sgiam.kata.pagination.UserCursor;
 import com.carbonit.sgiam.kata.repositories.UsersRepository;
-import org.springframework.data.domain.Page;
+import com.carbonit.sgiam.kata.search.NameTrigramIndex;
+import com.carbonit.sgiam.kata.search.SearchMode;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.stream.StreamSupport.stream;
 
 @Service
+@Profile("!reactive")
 public class UsersServiceImpl implements UsersService {
 
+    private static final String SERVICE_TIMER = "users.service";
+
     private final UsersRepository repository;
+    private final UsersCounter counter;
+    private final UsersBatchWriter batchWriter;
+    private final UsersCache cache;
+    private final NameTrigramIndex nameIndex;
+    private final UsersGroupCommitter groupCommitter;
     private final UserMapper userMapper = new UserMapperImpl();
 
-    UsersServiceImpl(UsersRepository repository){
+    UsersServiceImpl(UsersRepository repository, UsersCounter counter, UsersBatchWriter batchWriter, UsersCache cache,
+            NameTrigramIndex nameIndex, UsersGroupCommitter groupCommitter){
         this.repository = repository;
+        this.counter = counter;
+        this.batchWriter = batchWriter;
+        this.cache = cache;
+        this.nameIndex = nameIndex;
+        this.groupCommitter = groupCommitter;
     }
 
+    @Timed(value = SERVICE_TIMER, histogram = true)
     public UserDTO createUser(final UserDTO userDTO) {
-        return userMapper.toDto(repository.save(userMapper.toEntity(userDTO)));
+        UserDTO created = groupCommitter.isEnabled() ? groupCommitter.create(userDTO)
+            : userMapper.toDto(repository.save(userMapper.toEntity(userDTO)));
+        cache.invalidate(created.getId());
+        nameIndex.put(created.getId(), created.getName());
+        counter.add(1);
+        return created;
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public List<BatchItemResultDTO> createUsers(final List<UserDTO> userDTOs) {
+        List<BatchItemResultDTO> results = batchWriter.insert(userDTOs);
+        long created = 0;
+        for (BatchItemResultDTO result : results) {
+            if (result.getStatus() != BatchItemResultDTO.Status.CREATED) continue;
+            nameIndex.put(result.getUser().getId(), result.getUser().getName());
+            created++;
+        }
+        counter.add(created);
+        return results;
     }
 
+    @Timed(value = SERVICE_TIMER, histogram = true)
     public UserDTO findUserById(final UUID id) throws UserNotFoundException {
-        User user = repository.findById(id)
+        return cache.get(id, this::loadUser);
+    }
+
+    private UserDTO loadUser(final UUID id) throws UserNotFoundException {
+        User user = repository.findOnPrimaryById(id)
                 .orElseThrow(() -> new UserNotFoundException(id.toString()));
         return userMapper.toDto(user);
     }
 
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public OptionalLong findUserVersion(final UUID id) {
+        UserDTO cached = cache.getIfPresent(id);
+        Long version = cached != null ? cached.getVersion() : repository.findVersionById(id).orElse(null);
+        return version != null ? OptionalLong.of(version) : OptionalLong.empty();
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
     public List<UserDTO> findAllUsers() {
         return stream(repository.findAll().spliterator(), false)
                 .map(userMapper::toDto)
                 .collect(Collectors.toList());
     }
 
-    public Page<UserDTO> filterUsers(Pageable pageable) {
-        return repository.findAll(pageable).map(userMapper::toDto);
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public long streamAllUsers(final Consumer<UserDTO> consumer) {
+        long count = 0;
+        try (Stream<User> users = repository.streamAll()) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(userMapper.toDto(iterator.next()));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public long exportUsers(final BiConsumer<UUID, String> consumer) {
+        return repository.forEachIdAndName(consumer);
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public Slice<UserDTO> filterUsers(Pageable pageable) {
+        return repository.findAllBy(pageable).map(userMapper::toDto);
+    }
+
+    public long countUsers() {
+        return counter.get();
     }
 
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public Slice<UserDTO> seekUsers(final UserCursor.SortKey sortKey, final UserCursor after, final int size) {
+        Pageable pageable = PageRequest.of(0, size, sortKey.getSort());
+        Slice<User> users;
+        if (after == null) {
+            users = repository.findAllBy(pageable);
+        } else if (sortKey == UserCursor.SortKey.NAME) {
+            users = repository.findByNameAndIdAfter(after.getName(), after.getId(), pageable);
+        } else {
+            users = repository.findByIdGreaterThan(after.getId(), pageable);
+        }
+        return users.map(userMapper::toDto);
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public Slice<UserDTO> searchUsers(final String name, final SearchMode mode, final UserCursor after, final int size) {
+        Pageable pageable = PageRequest.of(0, size, UserCursor.SortKey.NAME.getSort());
+        Slice<User> users;
+        if (mode == SearchMode.EXACT) {
+            users = after == null ? repository.findByName(name, pageable)
+                : repository.findByNameAndIdGreaterThan(name, after.getId(), pageable);
+        } else {
+            String pattern = SearchMode.likePrefix(name);
+            users = after == null ? repository.findByNamePattern(pattern, pageable)
+                : repository.findByNamePatternAndIdAfter(pattern, after.getName(), after.getId(), pageable);
+        }
+        return users.map(userMapper::toDto);
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public List<UserDTO> rankUsers(final String query, final int limit) {
+        return nameIndex.search(query, limit);
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
     public UserDTO updateUser(final UUID id, final UserDTO userDTO) throws UserNotFoundException {
-        return repository.findById(id)
-            .map(user -> {
-                user.setName(userDTO.getName());
-                return userMapper.toDto(repository.save(user));
-            })
-            .orElseThrow(() -> new UserNotFoundException(id.toString()));
+        if (repository.updateName(id, userDTO.getName()) == 0) throw new UserNotFoundException(id.toString());
+        cache.invalidate(id);
+        nameIndex.put(id, userDTO.getName());
+        UserDTO updated = userMapper.fromId(id);
+        updated.setName(userDTO.getName());
+        return updated;
     }
 
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public BulkResultDTO renameUsers(final List<UserDTO> userDTOs) {
+        BulkResultDTO result = batchWriter.rename(userDTOs);
+        Set<UUID> skipped = skipped(result);
+        for (UserDTO userDTO : userDTOs) {
+            if (skipped.contains(userDTO.getId())) continue;
+            cache.invalidate(userDTO.getId());
+            nameIndex.put(userDTO.getId(), userDTO.getName());
+        }
+        return result;
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
     public UserDTO deleteUser(final UUID id) throws UserNotFoundException {
-        return repository.findById(id)
-            .map(user -> {
-                repository.delete(user);
-                return userMapper.fromId(id);
-            })
-            .orElseThrow(() -> new UserNotFoundException(id.toString()));
+        if (repository.deleteUserById(id) == 0) throw new UserNotFoundException(id.toString());
+        cache.invalidate(id);
+        nameIndex.remove(id);
+        counter.add(-1);
+        return userMapper.fromId(id);
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public BulkResultDTO deleteUsers(final List<UUID> ids) {
+        BulkResultDTO result = batchWriter.delete(ids);
+        Set<UUID> skipped = skipped(result);
+        for (UUID id : ids) {
+            if (skipped.contains(id)) continue;
+            cache.invalidate(id);
+            nameIndex.remove(id);
+        }
+        counter.add(-result.getApplied());
+        return result;
+    }
+
+    private static Set<UUID> skipped(final BulkResultDTO result) {
+        Set<UUID> skipped = new HashSet<>(result.getNotFound());
+        skipped.addAll(result.getFailed());
+        return skipped;
     }
 }
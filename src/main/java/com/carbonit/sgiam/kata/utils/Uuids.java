@@ -0,0 +1,111 @@
+package com.carbonit.sgiam.kata.utils;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Conversions between uuids and their BINARY(16) column representation, as written by the uuid-binary hibernate type.
+ */
+public final class Uuids {
+
+    private static final int CANONICAL_LENGTH = 36;
+
+    private Uuids() {
+    }
+
+    public static byte[] toBytes(final UUID uuid) {
+        return ByteBuffer.allocate(16)
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits())
+            .array();
+    }
+
+    public static UUID fromBytes(final byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Parses the same forms as {@link UUID#fromString(String)} without throwing, an invalid id costs no exception. The
+     * canonical 8-4-4-4-12 hexadecimal form is read in a single pass, the shorter forms with five dash separated
+     * components, such as 1-1-1-1-1, are read as the JDK does.
+     *
+     * @return null when {@link UUID#fromString(String)} would reject the value
+     */
+    public static UUID parse(final CharSequence value) {
+        if (value == null) return null;
+        UUID uuid = value.length() == CANONICAL_LENGTH ? parseCanonical(value) : null;
+        return uuid != null ? uuid : parseComponents(value);
+    }
+
+    private static UUID parseCanonical(final CharSequence value) {
+        long most = 0;
+        long least = 0;
+        int digits = 0;
+        for (int i = 0; i < CANONICAL_LENGTH; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') return null;
+                continue;
+            }
+            int digit = hexDigit(c);
+            if (digit < 0) return null;
+            if (digits++ < 16) most = most << 4 | digit;
+            else least = least << 4 | digit;
+        }
+        return new UUID(most, least);
+    }
+
+    /**
+     * The components are truncated to their bits in the uuid, as {@link UUID#fromString(String)} does
+     */
+    private static UUID parseComponents(final CharSequence value) {
+        int length = value.length();
+        if (length > CANONICAL_LENGTH) return null;
+        int dash1 = indexOfDash(value, 0);
+        int dash2 = indexOfDash(value, dash1 + 1);
+        int dash3 = indexOfDash(value, dash2 + 1);
+        int dash4 = indexOfDash(value, dash3 + 1);
+        if (dash4 < 0) return null;
+        long time = parseComponent(value, 0, dash1);
+        long timeMid = parseComponent(value, dash1 + 1, dash2);
+        long timeHigh = parseComponent(value, dash2 + 1, dash3);
+        long clock = parseComponent(value, dash3 + 1, dash4);
+        long node = parseComponent(value, dash4 + 1, length);
+        if ((time | timeMid | timeHigh | clock | node) < 0) return null;
+        return new UUID((time & 0xffffffffL) << 32 | (timeMid & 0xffffL) << 16 | timeHigh & 0xffffL,
+            (clock & 0xffffL) << 48 | node & 0xffffffffffffL);
+    }
+
+    private static int indexOfDash(final CharSequence value, final int from) {
+        for (int i = from; i < value.length(); i++) {
+            if (value.charAt(i) == '-') return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a hexadecimal long as {@link Long#parseLong(CharSequence, int, int, int)} does, with an optional plus sign
+     * and any unicode hexadecimal digit
+     *
+     * @return -1 when it would throw, a component never being negative
+     */
+    private static long parseComponent(final CharSequence value, final int start, final int end) {
+        int i = start < end && value.charAt(start) == '+' ? start + 1 : start;
+        if (i >= end) return -1;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = Character.digit(value.charAt(i), 16);
+            if (digit < 0 || result > (Long.MAX_VALUE - digit) >>> 4) return -1;
+            result = result << 4 | digit;
+        }
+        return result;
+    }
+
+    private static int hexDigit(final char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+}
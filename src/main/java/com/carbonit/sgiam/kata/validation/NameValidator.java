@@ -0,0 +1,78 @@
+package com.carbonit.sgiam.kata.validation;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.NAME_CONTAINS_RESERVED;
+
+/**
+ * Rejects the user names containing one of the reserved substrings listed in a resource, one per line, the blank
+ * lines and the ones starting with # being ignored.
+ *
+ * The names are checked against a compiled automaton read through an atomic reference. A reload compiles the new
+ * list aside and swaps it in, the requests being validated meanwhile keep the previous one.
+ */
+@Component
+public class NameValidator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NameValidator.class);
+    private static final String COMMENT = "#";
+
+    private final Resource reservedNames;
+    private final AtomicReference<ReservedNamesAutomaton> automaton = new AtomicReference<>();
+
+    /**
+     * @throws UncheckedIOException when the reserved names cannot be read, the application does not start without them
+     */
+    public NameValidator(@Value("${users.validation.reserved-names}") final Resource reservedNames) {
+        this.reservedNames = reservedNames;
+        try {
+            reload();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @throws ParameterNotValidException when the name contains a reserved pattern
+     */
+    public void check(final UserDTO user) throws ParameterNotValidException {
+        String pattern = automaton.get().find(user.getName());
+        if (pattern != null) throw new ParameterNotValidException(NAME_CONTAINS_RESERVED, user.getName(), pattern);
+    }
+
+    /**
+     * Reads and compiles the reserved names again. The current list stays in use when the resource cannot be read.
+     */
+    public ReservedNamesAutomaton reload() throws IOException {
+        List<String> patterns;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(reservedNames.getInputStream(), StandardCharsets.UTF_8))) {
+            patterns = reader.lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith(COMMENT))
+                .collect(Collectors.toList());
+        }
+        ReservedNamesAutomaton compiled = ReservedNamesAutomaton.compile(patterns);
+        automaton.set(compiled);
+        LOGGER.info("Loaded {} reserved names from {}, {} automaton states", compiled.patterns(), reservedNames, compiled.states());
+        return compiled;
+    }
+
+    public ReservedNamesAutomaton current() {
+        return automaton.get();
+    }
+}
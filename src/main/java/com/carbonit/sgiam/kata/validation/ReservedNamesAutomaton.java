@@ -0,0 +1,119 @@
+package com.carbonit.sgiam.kata.validation;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Aho-Corasick automaton over a set of reserved substrings, compiled into a complete transition table. A name is
+ * scanned once, one table lookup per character, whatever the number of patterns.
+ *
+ * Only the characters used by the patterns get a column of their own, any other character sends back to the root.
+ * The automaton is immutable once compiled, so it can be shared and swapped without locking.
+ */
+public final class ReservedNamesAutomaton {
+
+    private static final int ROOT = 0;
+    private static final int NO_MATCH = -1;
+
+    private final String[] patterns;
+    private final int[] classes;
+    private final int alphabetSize;
+    private final int[] transitions;
+    private final int[] matches;
+
+    private ReservedNamesAutomaton(final String[] patterns, final int[] classes, final int alphabetSize,
+            final int[] transitions, final int[] matches) {
+        this.patterns = patterns;
+        this.classes = classes;
+        this.alphabetSize = alphabetSize;
+        this.transitions = transitions;
+        this.matches = matches;
+    }
+
+    /**
+     * @param patterns the blank ones are ignored, the duplicates are compiled once
+     */
+    public static ReservedNamesAutomaton compile(final Collection<String> patterns) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String pattern : patterns) {
+            if (pattern != null && !pattern.isBlank()) distinct.add(pattern);
+        }
+        String[] compiled = distinct.toArray(new String[0]);
+
+        int maxChar = -1;
+        int length = 0;
+        for (String pattern : compiled) {
+            length += pattern.length();
+            for (int i = 0; i < pattern.length(); i++) maxChar = Math.max(maxChar, pattern.charAt(i));
+        }
+        int[] classes = new int[maxChar + 1];
+        int alphabetSize = 1;
+        for (String pattern : compiled) {
+            for (int i = 0; i < pattern.length(); i++) {
+                if (classes[pattern.charAt(i)] == 0) classes[pattern.charAt(i)] = alphabetSize++;
+            }
+        }
+
+        int[] transitions = new int[(length + 1) * alphabetSize];
+        int[] matches = new int[length + 1];
+        Arrays.fill(matches, NO_MATCH);
+        int states = 1;
+        for (int p = 0; p < compiled.length; p++) {
+            int state = ROOT;
+            for (int i = 0; i < compiled[p].length(); i++) {
+                int edge = state * alphabetSize + classes[compiled[p].charAt(i)];
+                if (transitions[edge] == ROOT) transitions[edge] = states++;
+                state = transitions[edge];
+            }
+            if (matches[state] == NO_MATCH) matches[state] = p;
+        }
+
+        // breadth first, the failure state of a state is always shallower and so already complete
+        int[] failures = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < alphabetSize; c++) {
+            if (transitions[c] != ROOT) queue.add(transitions[c]);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int failure = failures[state];
+            if (matches[state] == NO_MATCH) matches[state] = matches[failure];
+            for (int c = 0; c < alphabetSize; c++) {
+                int edge = state * alphabetSize + c;
+                if (transitions[edge] != ROOT) {
+                    failures[transitions[edge]] = transitions[failure * alphabetSize + c];
+                    queue.add(transitions[edge]);
+                } else {
+                    transitions[edge] = transitions[failure * alphabetSize + c];
+                }
+            }
+        }
+        return new ReservedNamesAutomaton(compiled, classes, alphabetSize,
+            Arrays.copyOf(transitions, states * alphabetSize), Arrays.copyOf(matches, states));
+    }
+
+    /**
+     * @return the first reserved pattern the name contains, null when there is none
+     */
+    public String find(final CharSequence name) {
+        int state = ROOT;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            state = transitions[state * alphabetSize + (c < classes.length ? classes[c] : 0)];
+            if (matches[state] != NO_MATCH) return patterns[matches[state]];
+        }
+        return null;
+    }
+
+    public int patterns() {
+        return patterns.length;
+    }
+
+    public int states() {
+        return matches.length;
+    }
+}
@@ -0,0 +1,38 @@
+package com.carbonit.sgiam.kata.validation;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Actuator endpoint reservednames, its write operation reloads the reserved names without a restart. It is only
+ * exposed over JMX, the http listener has no authentication.
+ */
+@Component
+@Endpoint(id = "reservednames")
+public class ReservedNamesEndpoint {
+
+    private final NameValidator validator;
+
+    ReservedNamesEndpoint(NameValidator validator) {
+        this.validator = validator;
+    }
+
+    @ReadOperation
+    public Map<String, Integer> reservedNames() {
+        return describe(validator.current());
+    }
+
+    @WriteOperation
+    public Map<String, Integer> reload() throws IOException {
+        return describe(validator.reload());
+    }
+
+    private static Map<String, Integer> describe(final ReservedNamesAutomaton automaton) {
+        return Map.of("patterns", automaton.patterns(), "states", automaton.states());
+    }
+}
@@ -0,0 +1,18 @@
+package com.carbonit.sgiam.kata.dtos;
+
+import lombok.Data;
+
+@Data
+public class BatchItemResultDTO {
+
+    public enum Status {
+        CREATED,
+        REJECTED,
+        FAILED,
+    }
+
+    private int index;
+    private Status status;
+    private UserDTO user;
+    private String message;
+}
@@ -0,0 +1,16 @@
+package com.carbonit.sgiam.kata.dtos;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BulkResultDTO {
+    private int requested;
+    private int applied;
+    private List<UUID> notFound = new ArrayList<>();
+    private List<UUID> failed = new ArrayList<>();
+    private List<BatchItemResultDTO> rejected = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.carbonit.sgiam.kata.dtos;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportReportDTO {
+    private int read;
+    private int created;
+    private int rejected;
+    private int failed;
+    private int chunks;
+    private List<BatchItemResultDTO> errors = new ArrayList<>();
+}
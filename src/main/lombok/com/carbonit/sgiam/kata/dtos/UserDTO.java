@@ -1,5 +1,6 @@
 package com.carbonit.sgiam.kata.dtos;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.io.Serializable;
@@ -9,4 +10,6 @@ import java.util.UUID;
 public class UserDTO implements Serializable {
     private UUID id;
     private String name;
+    @JsonIgnore
+    private Long version;
 }
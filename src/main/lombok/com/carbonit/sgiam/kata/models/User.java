@@ -2,19 +2,28 @@ package com.carbonit.sgiam.kata.models;
 
 import lombok.Data;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import java.io.Serializable;
 import java.util.UUID;
 
 @Data
 @Entity
+@Table(name = "users")
 public class User implements Serializable {
     @Id
     @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "org.hibernate.id.UUIDGenerator")
+    @GenericGenerator(name = "uuid", strategy = "com.carbonit.sgiam.kata.generators.UserIdGenerator")
+    @Type(type = "uuid-binary")
+    @Column(columnDefinition = "BINARY(16)")
     private UUID id;
     private String name;
+    @Version
+    private Long version;
 }
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS users (
+    id BINARY(16) NOT NULL PRIMARY KEY,
+    name VARCHAR(255),
+    version BIGINT
+);
+
+-- name lookups and name ordered listings, the id makes it covering for the keyset seeks
+CREATE INDEX IF NOT EXISTS users_name_id ON users (name, id);
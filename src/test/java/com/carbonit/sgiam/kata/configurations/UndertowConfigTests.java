@@ -0,0 +1,45 @@
+package com.carbonit.sgiam.kata.configurations;
+
+import com.carbonit.sgiam.kata.handlers.HttpsRedirectHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HandlerWrapper;
+import io.undertow.servlet.api.DeploymentInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UndertowConfigTests {
+
+    private final UndertowConfig config = new UndertowConfig();
+
+    @DisplayName("The https redirection wraps the concurrency limiter, whatever the order of the customizer beans")
+    @Test
+    void redirectOutsideLimiter() {
+        List<WebServerFactoryCustomizer<UndertowServletWebServerFactory>> customizers = new ArrayList<>(Arrays.asList(
+            config.httpsRedirectCustomizer(8443, true, "", false, Duration.ZERO),
+            config.concurrencyLimitCustomizer(new SimpleMeterRegistry(), true, Duration.ofSeconds(1), 20, 4, 200, 4, 1, 32, 2)));
+        // as the customizers post processor does
+        customizers.sort(AnnotationAwareOrderComparator.INSTANCE);
+        UndertowServletWebServerFactory factory = new UndertowServletWebServerFactory();
+        customizers.forEach(customizer -> customizer.customize(factory));
+
+        DeploymentInfo deploymentInfo = new DeploymentInfo();
+        factory.getDeploymentInfoCustomizers().forEach(customizer -> customizer.customize(deploymentInfo));
+        // as the deployment manager does, the wrappers added last are the outermost
+        HttpHandler handler = exchange -> { };
+        for (HandlerWrapper wrapper : deploymentInfo.getInitialHandlerChainWrappers()) handler = wrapper.wrap(handler);
+
+        assertEquals(2, deploymentInfo.getInitialHandlerChainWrappers().size());
+        assertInstanceOf(HttpsRedirectHandler.class, handler);
+    }
+}
@@ -0,0 +1,71 @@
+package com.carbonit.sgiam.kata.controllers;
+
+import com.carbonit.sgiam.kata.dtos.ErrorResponseDTO;
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import com.carbonit.sgiam.kata.exceptions.UserNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.INVALID_UUID;
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.UNVALID;
+import static com.carbonit.sgiam.kata.utils.UserUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ErrorBodiesTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DisplayName("As a user I get the same bad request body as the serialized error, whatever my id holds")
+    @Test
+    void badRequest() throws JsonProcessingException {
+        ParameterNotValidException e = new ParameterNotValidException(INVALID_UUID, "\"quoted\\ \u00e9\n");
+
+        assertArrayEquals(serialize(HttpStatus.BAD_REQUEST, e), ErrorBodies.badRequest(e));
+    }
+
+    @DisplayName("As a user I get the same not found body as the serialized error")
+    @Test
+    void notFound() throws JsonProcessingException {
+        UserNotFoundException e = new UserNotFoundException(NON_EXISTING_ID);
+
+        assertArrayEquals(serialize(HttpStatus.NOT_FOUND, e), ErrorBodies.notFound(e));
+    }
+
+    @DisplayName("As a user I get a body serialized once and for all when the message is static")
+    @Test
+    void staticBadRequest() throws JsonProcessingException {
+        ParameterNotValidException e = new ParameterNotValidException(UNVALID, null);
+
+        assertSame(ErrorBodies.badRequest(e), ErrorBodies.badRequest(new ParameterNotValidException(UNVALID, null)));
+        assertArrayEquals(serialize(HttpStatus.BAD_REQUEST, e), ErrorBodies.badRequest(e));
+    }
+
+    @DisplayName("As a user I get a pre-serialized body unless I prefer a binary format")
+    @Test
+    void acceptsJson() {
+        assertTrue(ErrorBodies.acceptsJson(null));
+        assertTrue(ErrorBodies.acceptsJson("*/*"));
+        assertTrue(ErrorBodies.acceptsJson("application/json"));
+        assertTrue(ErrorBodies.acceptsJson("text/csv"));
+        assertTrue(ErrorBodies.acceptsJson("not a media type"));
+        assertFalse(ErrorBodies.acceptsJson("application/cbor"));
+        assertFalse(ErrorBodies.acceptsJson("application/json;q=0.5, application/x-jackson-smile"));
+    }
+
+    @DisplayName("As a user I do not pay for a stack trace on an invalid request")
+    @Test
+    void stacklessExceptions() {
+        assertEquals(0, new ParameterNotValidException(INVALID_UUID, INVALID_ID).getStackTrace().length);
+        assertEquals(0, new UserNotFoundException(NON_EXISTING_ID).getStackTrace().length);
+    }
+
+    private byte[] serialize(final HttpStatus status, final RuntimeException e) throws JsonProcessingException {
+        ErrorResponseDTO error = new ErrorResponseDTO();
+        error.setCode(status.toString());
+        error.setMessage(e.getMessage());
+        return objectMapper.writeValueAsBytes(error);
+    }
+}
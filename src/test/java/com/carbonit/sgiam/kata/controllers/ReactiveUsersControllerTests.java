@@ -0,0 +1,206 @@
+package com.carbonit.sgiam.kata.controllers;
+
+import com.carbonit.sgiam.kata.dtos.ErrorResponseDTO;
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static com.carbonit.sgiam.kata.exceptions.UserNotFoundException.USER_NOT_FOUND_MSG;
+import static com.carbonit.sgiam.kata.utils.UserUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+public class ReactiveUsersControllerTests {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM users")
+            .then()
+            .block();
+    }
+
+    private UserDTO post(String name) {
+        return client.post().uri("/api/v1/users")
+            .bodyValue(createUserDTO(null, name))
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody(UserDTO.class)
+            .returnResult().getResponseBody();
+    }
+
+    /*********************** post ***********************/
+
+    @DisplayName("As a user I can create a user")
+    @Test
+    void postUser() {
+        UserDTO user = post(USER_NAME_1);
+
+        assertNotNull(user.getId());
+        assertEquals(USER_NAME_1, user.getName());
+    }
+
+    @DisplayName("As a user I cannot create a user with an invalid name")
+    @Test
+    void postUserWithInvalidName() {
+        client.post().uri("/api/v1/users")
+            .bodyValue(createUserDTO(null, INVALID_NAME))
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    /*********************** get ***********************/
+
+    @DisplayName("As a user I can get a user by id")
+    @Test
+    void getUserById() {
+        UserDTO created = post(USER_NAME_1);
+
+        UserDTO user = client.get().uri("/api/v1/users/{id}", created.getId())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(UserDTO.class)
+            .returnResult().getResponseBody();
+
+        assertEquals(created.getId(), user.getId());
+        assertEquals(USER_NAME_1, user.getName());
+    }
+
+    @DisplayName("As a user I get a not found when getting a non existing user")
+    @Test
+    void getNonExistingUserById() {
+        double notFoundErrors = meterRegistry.counter("users.errors", "type", "not_found").count();
+
+        ErrorResponseDTO error = client.get().uri("/api/v1/users/{id}", NON_EXISTING_ID)
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody(ErrorResponseDTO.class)
+            .returnResult().getResponseBody();
+
+        assertEquals(String.format(USER_NOT_FOUND_MSG, NON_EXISTING_ID), error.getMessage());
+        assertEquals(notFoundErrors + 1, meterRegistry.counter("users.errors", "type", "not_found").count());
+    }
+
+    @DisplayName("As a user I get a bad request when getting a user with an invalid id")
+    @Test
+    void getUserByInvalidId() {
+        client.get().uri("/api/v1/users/{id}", INVALID_ID)
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    /*********************** getAll ***********************/
+
+    @DisplayName("As a user I can get all users")
+    @Test
+    void getAllUsers() {
+        post(USER_NAME_1);
+        post(USER_NAME_2);
+
+        List<UserDTO> users = client.get().uri("/api/v1/users")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBodyList(UserDTO.class)
+            .returnResult().getResponseBody();
+
+        assertEquals(2, users.size());
+    }
+
+    @DisplayName("As a user I get a no content when there are no users to get")
+    @Test
+    void getAllUsersButNoUsers() {
+        client.get().uri("/api/v1/users")
+            .exchange()
+            .expectStatus().isNoContent();
+    }
+
+    /*********************** filter ***********************/
+
+    @DisplayName("As a user I can get a page of users")
+    @Test
+    void filterUsers() {
+        post(USER_NAME_1);
+        post(USER_NAME_2);
+
+        List<UserDTO> users = client.get().uri("/api/v1/users/filter?page=1&size=1")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBodyList(UserDTO.class)
+            .returnResult().getResponseBody();
+
+        assertEquals(1, users.size());
+    }
+
+    /*********************** update ***********************/
+
+    @DisplayName("As a user I can update a user")
+    @Test
+    void updateUser() {
+        UserDTO created = post(USER_NAME_1);
+
+        client.put().uri("/api/v1/users/{id}", created.getId())
+            .bodyValue(createUserDTO(null, UPDATE_USER_NAME))
+            .exchange()
+            .expectStatus().isOk();
+
+        UserDTO user = client.get().uri("/api/v1/users/{id}", created.getId())
+            .exchange()
+            .expectBody(UserDTO.class)
+            .returnResult().getResponseBody();
+        assertEquals(UPDATE_USER_NAME, user.getName());
+    }
+
+    @DisplayName("As a user I get a not found when updating a non existing user")
+    @Test
+    void updateNonExistingUser() {
+        client.put().uri("/api/v1/users/{id}", NON_EXISTING_ID)
+            .bodyValue(createUserDTO(null, UPDATE_USER_NAME))
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+
+    /*********************** delete ***********************/
+
+    @DisplayName("As a user I can delete a user")
+    @Test
+    void deleteUser() {
+        UserDTO created = post(USER_NAME_1);
+
+        client.delete().uri("/api/v1/users/{id}", created.getId())
+            .exchange()
+            .expectStatus().isOk();
+
+        client.get().uri("/api/v1/users/{id}", created.getId())
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+
+    @DisplayName("As a user I get a not found when deleting a non existing user")
+    @Test
+    void deleteNonExistingUser() {
+        client.delete().uri("/api/v1/users/{id}", NON_EXISTING_ID)
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+}
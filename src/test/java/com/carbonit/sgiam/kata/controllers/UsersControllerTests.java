@@ -1,34 +1,63 @@
 package com.carbonit.sgiam.kata.controllers;
 
+import com.carbonit.sgiam.kata.dtos.BatchItemResultDTO;
+import com.carbonit.sgiam.kata.dtos.BulkResultDTO;
 import com.carbonit.sgiam.kata.dtos.ErrorResponseDTO;
 import com.carbonit.sgiam.kata.dtos.UserDTO;
 import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
 import com.carbonit.sgiam.kata.exceptions.UserNotFoundException;
+import com.carbonit.sgiam.kata.pagination.UserCursor;
+import com.carbonit.sgiam.kata.search.SearchMode;
 import com.carbonit.sgiam.kata.services.UsersService;
+import com.carbonit.sgiam.kata.validation.NameValidator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.restassured.module.mockmvc.response.MockMvcResponse;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.BDDMockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
+import static com.carbonit.sgiam.kata.configurations.BinaryFormatsConfig.SMILE_VALUE;
 import static com.carbonit.sgiam.kata.exceptions.UserNotFoundException.USER_NOT_FOUND_MSG;
 import static com.carbonit.sgiam.kata.utils.UserUtils.*;
+import static io.restassured.config.EncoderConfig.encoderConfig;
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
+import static io.restassured.module.mockmvc.config.RestAssuredMockMvcConfig.config;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.data.domain.PageRequest.of;
 
 @ExtendWith(SpringExtension.class)
 public class UsersControllerTests {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_RANK_LIMIT = 50;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NameValidator nameValidator = new NameValidator(new ByteArrayResource(RESERVED_NAME.getBytes(StandardCharsets.UTF_8)));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     
     @MockBean
     private UsersService usersService;
@@ -45,7 +74,7 @@ public class UsersControllerTests {
 
         UserDTO[] users =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
             .when()
                 .get("/api/v1/users")
                 .then().statusCode(HttpStatus.OK.value())
@@ -68,7 +97,7 @@ public class UsersControllerTests {
 
         UserDTO[] users =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
             .when()
                 .get("/api/v1/users")
                 .then().statusCode(HttpStatus.NO_CONTENT.value())
@@ -78,6 +107,105 @@ public class UsersControllerTests {
         assertEquals(0, users.length);
     }
 
+    @DisplayName("As a user I can stream all users")
+    @Test
+    void streamAllUsers() {
+        BDDMockito.given(usersService.streamAllUsers(any())).willAnswer(invocation -> {
+            Consumer<UserDTO> consumer = invocation.getArgument(0);
+            consumer.accept(user1);
+            consumer.accept(user2);
+            return 2L;
+        });
+
+        UserDTO[] users =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .when()
+                .get("/api/v1/users?stream=true")
+                .then().statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(UserDTO[].class);
+
+        assertEquals(2, users.length);
+        assertEquals(user1, users[0]);
+        assertEquals(user2, users[1]);
+    }
+
+    @DisplayName("As a user I get a no content when there are no users to stream")
+    @Test
+    void streamAllUsersButNoUsers() {
+        BDDMockito.given(usersService.streamAllUsers(any())).willReturn(0L);
+
+        String body =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .when()
+                .get("/api/v1/users?stream=true")
+                .then().statusCode(HttpStatus.NO_CONTENT.value())
+                .extract()
+                .asString();
+
+        assertEquals("", body);
+    }
+
+    /*********************** export ***********************/
+
+    @DisplayName("As a user I can export all users as NDJSON")
+    @Test
+    void exportUsers() {
+        BDDMockito.given(usersService.exportUsers(any())).willAnswer(invocation -> {
+            BiConsumer<UUID, String> consumer = invocation.getArgument(0);
+            consumer.accept(user1.getId(), user1.getName());
+            consumer.accept(user2.getId(), user2.getName());
+            return 2L;
+        });
+
+        MockMvcResponse response =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .when()
+                .get("/api/v1/users/export");
+
+        response.then().statusCode(HttpStatus.OK.value());
+        assertTrue(response.getContentType().startsWith("application/x-ndjson"));
+        assertEquals("{\"id\":\"" + USER_ID_1 + "\",\"name\":\"" + USER_NAME_1 + "\"}\n"
+            + "{\"id\":\"" + USER_ID_2 + "\",\"name\":\"" + USER_NAME_2 + "\"}\n", response.asString());
+    }
+
+    @DisplayName("As a user I can export all users as a gzip file of CSV")
+    @Test
+    void exportUsersAsGzipCsv() throws IOException {
+        BDDMockito.given(usersService.exportUsers(any())).willAnswer(invocation -> {
+            BiConsumer<UUID, String> consumer = invocation.getArgument(0);
+            consumer.accept(user1.getId(), user1.getName());
+            return 1L;
+        });
+
+        MockMvcResponse response =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .when()
+                .get("/api/v1/users/export?format=csv&gzip=true");
+
+        response.then().statusCode(HttpStatus.OK.value())
+            .contentType("application/gzip")
+            .header(HttpHeaders.CONTENT_ENCODING, nullValue())
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv.gz\"");
+        try (GZIPInputStream csv = new GZIPInputStream(new ByteArrayInputStream(response.asByteArray()))) {
+            assertEquals("id,name\r\n" + USER_ID_1 + "," + USER_NAME_1 + "\r\n", new String(csv.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @DisplayName("As a user I cannot export the users to an unknown format")
+    @Test
+    void exportUsersWithInvalidFormat() {
+        given()
+            .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+        .when()
+            .get("/api/v1/users/export?format=xml")
+            .then().statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
     /*********************** getUserById ***********************/
 
     @DisplayName("As a user I can get a specific User by id")
@@ -87,7 +215,7 @@ public class UsersControllerTests {
 
         UserDTO user =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
             .when()
                 .get(String.format("/api/v1/users/%s", USER_ID_1))
                 .then().statusCode(HttpStatus.OK.value())
@@ -98,12 +226,132 @@ public class UsersControllerTests {
         assertEquals(USER_NAME_1, user.getName());
     }
 
+    @DisplayName("As a user I get the version of a user as its ETag")
+    @Test
+    void getUserByIdWithETag() throws UserNotFoundException {
+        UserDTO versionedUser = createUserDTO(USER_ID_1, USER_NAME_1);
+        versionedUser.setVersion(3L);
+        BDDMockito.given(usersService.findUserById(UUID.fromString(USER_ID_1))).willReturn(versionedUser);
+
+        String eTag =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .when()
+                .get(String.format("/api/v1/users/%s", USER_ID_1))
+                .then().statusCode(HttpStatus.OK.value())
+                .extract()
+                .header(HttpHeaders.ETAG);
+
+        assertEquals("\"3\"", eTag);
+    }
+
+    @DisplayName("As a user I get an ETag of its own for each format, varying with the Accept header")
+    @Test
+    void getUserByIdWithETagAsCbor() throws UserNotFoundException {
+        UserDTO versionedUser = createUserDTO(USER_ID_1, USER_NAME_1);
+        versionedUser.setVersion(3L);
+        BDDMockito.given(usersService.findUserById(UUID.fromString(USER_ID_1))).willReturn(versionedUser);
+
+        given()
+            .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .accept(MediaType.APPLICATION_CBOR_VALUE)
+        .when()
+            .get(String.format("/api/v1/users/%s", USER_ID_1))
+            .then().statusCode(HttpStatus.OK.value())
+            .header(HttpHeaders.ETAG, "\"3-cbor\"")
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    @DisplayName("As a user I get the user again as CBOR when my ETag is the one of its JSON representation")
+    @Test
+    void getUserByIdAsCborWithJsonETag() throws UserNotFoundException {
+        UserDTO versionedUser = createUserDTO(USER_ID_1, USER_NAME_1);
+        versionedUser.setVersion(3L);
+        BDDMockito.given(usersService.findUserVersion(UUID.fromString(USER_ID_1))).willReturn(OptionalLong.of(3L));
+        BDDMockito.given(usersService.findUserById(UUID.fromString(USER_ID_1))).willReturn(versionedUser);
+
+        given()
+            .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .accept(MediaType.APPLICATION_CBOR_VALUE)
+            .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+        .when()
+            .get(String.format("/api/v1/users/%s", USER_ID_1))
+            .then().statusCode(HttpStatus.OK.value())
+            .header(HttpHeaders.ETAG, "\"3-cbor\"");
+    }
+
+    @DisplayName("As a user I get a not modified without the user being loaded when my ETag is up to date")
+    @Test
+    void getUserByIdNotModified() throws UserNotFoundException {
+        BDDMockito.given(usersService.findUserVersion(UUID.fromString(USER_ID_1))).willReturn(OptionalLong.of(3L));
+
+        given()
+            .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+        .when()
+            .get(String.format("/api/v1/users/%s", USER_ID_1))
+            .then().statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        BDDMockito.verify(usersService, BDDMockito.never()).findUserById(BDDMockito.any());
+    }
+
+    @DisplayName("As a user I get the user again when my ETag is outdated")
+    @Test
+    void getUserByIdModified() throws UserNotFoundException {
+        UserDTO versionedUser = createUserDTO(USER_ID_1, USER_NAME_1);
+        versionedUser.setVersion(4L);
+        BDDMockito.given(usersService.findUserVersion(UUID.fromString(USER_ID_1))).willReturn(OptionalLong.of(4L));
+        BDDMockito.given(usersService.findUserById(UUID.fromString(USER_ID_1))).willReturn(versionedUser);
+
+        UserDTO user =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+            .when()
+                .get(String.format("/api/v1/users/%s", USER_ID_1))
+                .then().statusCode(HttpStatus.OK.value())
+                .header(HttpHeaders.ETAG, "\"4\"")
+                .extract()
+                .as(UserDTO.class);
+
+        assertEquals(USER_NAME_1, user.getName());
+    }
+
+    @DisplayName("As a user I get a user without version even when I send an ETag")
+    @Test
+    void getUnversionedUserByIdWithETag() throws UserNotFoundException {
+        BDDMockito.given(usersService.findUserVersion(UUID.fromString(USER_ID_1))).willReturn(OptionalLong.empty());
+        BDDMockito.given(usersService.findUserById(UUID.fromString(USER_ID_1))).willReturn(createUserDTO(USER_ID_1, USER_NAME_1));
+
+        given()
+            .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+        .when()
+            .get(String.format("/api/v1/users/%s", USER_ID_1))
+            .then().statusCode(HttpStatus.OK.value())
+            .header(HttpHeaders.ETAG, nullValue());
+    }
+
+    @DisplayName("As a user I cannot get a non existing user when I send an ETag")
+    @Test
+    void getUserByIdWithANonExistingIdAndETag() throws UserNotFoundException {
+        BDDMockito.given(usersService.findUserVersion(UUID.fromString(NON_EXISTING_ID))).willReturn(OptionalLong.empty());
+        BDDMockito.given(usersService.findUserById(UUID.fromString(NON_EXISTING_ID))).willThrow(new UserNotFoundException(NON_EXISTING_ID));
+
+        given()
+            .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+        .when()
+            .get(String.format("/api/v1/users/%s", NON_EXISTING_ID))
+            .then().statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
     @DisplayName("As a user I cannot get a user with an invalid id")
     @Test
     void getUserByIdWithInvalidId() {
         ErrorResponseDTO error =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
             .when()
                 .get(String.format("/api/v1/users/%s", INVALID_ID))
                 .then().statusCode(HttpStatus.BAD_REQUEST.value())
@@ -121,7 +369,7 @@ public class UsersControllerTests {
 
         ErrorResponseDTO error =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
             .when()
                 .get(String.format("/api/v1/users/%s", NON_EXISTING_ID))
                 .then().statusCode(HttpStatus.NOT_FOUND.value())
@@ -129,6 +377,67 @@ public class UsersControllerTests {
                 .as(ErrorResponseDTO.class);
 
         assertEquals(error.getMessage(), String.format(USER_NOT_FOUND_MSG, NON_EXISTING_ID));
+        assertEquals(1, meterRegistry.get("users.errors").tag("type", "not_found").counter().count());
+    }
+
+    /*********************** binary formats ***********************/
+
+    @DisplayName("As a user I can get a user as CBOR")
+    @Test
+    void getUserByIdAsCbor() throws UserNotFoundException, IOException {
+        BDDMockito.given(usersService.findUserById(UUID.fromString(USER_ID_1))).willReturn(user1);
+
+        MockMvcResponse response =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+                .accept(MediaType.APPLICATION_CBOR_VALUE)
+            .when()
+                .get(String.format("/api/v1/users/%s", USER_ID_1));
+
+        response.then().statusCode(HttpStatus.OK.value()).contentType(MediaType.APPLICATION_CBOR_VALUE);
+        UserDTO user = new CBORMapper().readValue(response.asByteArray(), UserDTO.class);
+        assertEquals(USER_ID_1, user.getId().toString());
+        assertEquals(USER_NAME_1, user.getName());
+    }
+
+    @DisplayName("As a user I can create a user from a Smile body and get it back as Smile")
+    @Test
+    void postUserAsSmile() throws IOException {
+        UserDTO mockedUser = createUserDTO(null, USER_NAME_1);
+        BDDMockito.given(usersService.createUser(mockedUser)).willReturn(user1);
+        SmileMapper smileMapper = new SmileMapper();
+
+        MockMvcResponse response =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+                // a binary body has no charset, rest assured would add one and the converter would read it as text
+                .config(config().encoderConfig(encoderConfig().appendDefaultContentCharsetToContentTypeIfUndefined(false)))
+                .contentType(SMILE_VALUE)
+                .accept(SMILE_VALUE)
+                .body(smileMapper.writeValueAsBytes(Map.of("name", USER_NAME_1)))
+            .when()
+                .post("/api/v1/users");
+
+        response.then().statusCode(HttpStatus.CREATED.value()).contentType(SMILE_VALUE);
+        UserDTO user = smileMapper.readValue(response.asByteArray(), UserDTO.class);
+        assertEquals(USER_ID_1, user.getId().toString());
+        assertEquals(USER_NAME_1, user.getName());
+    }
+
+    @DisplayName("As a user I get the errors in the binary format I asked for")
+    @Test
+    void getUserByIdWithInvalidIdAsCbor() throws IOException {
+        MockMvcResponse response =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+                .accept(MediaType.APPLICATION_CBOR_VALUE)
+            .when()
+                .get(String.format("/api/v1/users/%s", INVALID_ID));
+
+        response.then().statusCode(HttpStatus.BAD_REQUEST.value()).contentType(MediaType.APPLICATION_CBOR_VALUE);
+        ErrorResponseDTO error = new CBORMapper().readValue(response.asByteArray(), ErrorResponseDTO.class);
+        assertEquals(error.getMessage(),
+            String.format(ParameterNotValidException.ErrorMessage.INVALID_UUID.getMessageTemplate(), INVALID_ID));
     }
 
     /*********************** filterUsers ***********************/
@@ -140,7 +449,7 @@ public class UsersControllerTests {
 
         UserDTO[] users =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
             .when()
                 .get("/api/v1/users/filter?page=0&size=1")
                 .then().statusCode(HttpStatus.OK.value())
@@ -152,6 +461,24 @@ public class UsersControllerTests {
         assertEquals(USER_NAME_1, users[0].getName());
     }
 
+    @DisplayName("As a user I can ask for the total number of users while filtering")
+    @Test
+    void filterUsersWithTotal() {
+        BDDMockito.given(usersService.filterUsers(of(0, 1))).willReturn(new SliceImpl<>(Collections.singletonList(user1), of(0, 1), true));
+        BDDMockito.given(usersService.countUsers()).willReturn(2L);
+
+        String total =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .when()
+                .get("/api/v1/users/filter?page=0&size=1&total=true")
+                .then().statusCode(HttpStatus.OK.value())
+                .extract()
+                .header(UsersController.TOTAL_COUNT_HEADER);
+
+        assertEquals("2", total);
+    }
+
     @DisplayName("As a user I get no users when no user satisfy the filter")
     @Test
     void filterUsersButNoUsers() {
@@ -159,7 +486,7 @@ public class UsersControllerTests {
 
         UserDTO[] users =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
             .when()
                 .get("/api/v1/users/filter?page=2&size=10")
                 .then().statusCode(HttpStatus.NO_CONTENT.value())
@@ -169,6 +496,208 @@ public class UsersControllerTests {
         assertEquals(0, users.length);
     }
 
+    @DisplayName("As a user I can walk the users with a cursor")
+    @Test
+    void seekUsers() {
+        BDDMockito.given(usersService.seekUsers(eq(UserCursor.SortKey.ID), isNull(), eq(1)))
+            .willReturn(new SliceImpl<>(Collections.singletonList(user1), of(0, 1), true));
+
+        String nextCursor =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .when()
+                .get("/api/v1/users/filter?size=1")
+                .then().statusCode(HttpStatus.OK.value())
+                .extract()
+                .header(UsersController.NEXT_CURSOR_HEADER);
+
+        assertEquals(UserCursor.after(UserCursor.SortKey.ID, user1), UserCursor.decode(nextCursor));
+
+        BDDMockito.given(usersService.seekUsers(UserCursor.SortKey.ID, UserCursor.decode(nextCursor), 1))
+            .willReturn(new SliceImpl<>(Collections.singletonList(user2), of(0, 1), false));
+
+        MockMvcResponse response =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .when()
+                .get(String.format("/api/v1/users/filter?size=1&after=%s", nextCursor))
+                .then().statusCode(HttpStatus.OK.value())
+                .extract()
+                .response();
+        UserDTO[] users = response.as(UserDTO[].class);
+
+        assertNull(response.header(UsersController.NEXT_CURSOR_HEADER));
+        assertEquals(1, users.length);
+        assertEquals(user2, users[0]);
+    }
+
+    @DisplayName("As a user I cannot walk the users with an empty or a too large page")
+    @Test
+    void seekUsersWithInvalidSize() {
+        for (int size : new int[] { 0, -1, MAX_PAGE_SIZE + 1 }) {
+            ErrorResponseDTO error =
+                given()
+                    .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+                .when()
+                    .get(String.format("/api/v1/users/filter?size=%d", size))
+                    .then().statusCode(HttpStatus.BAD_REQUEST.value())
+                    .extract()
+                    .as(ErrorResponseDTO.class);
+
+            assertEquals(String.format(ParameterNotValidException.ErrorMessage.INVALID_PAGE_SIZE.getMessageTemplate(), size, MAX_PAGE_SIZE),
+                error.getMessage());
+        }
+        BDDMockito.verifyNoInteractions(usersService);
+    }
+
+    @DisplayName("As a user I cannot walk the users with an invalid cursor")
+    @Test
+    void seekUsersWithInvalidCursor() {
+        ErrorResponseDTO error =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .when()
+                .get(String.format("/api/v1/users/filter?size=1&after=%s", INVALID_ID))
+                .then().statusCode(HttpStatus.BAD_REQUEST.value())
+                .extract()
+                .as(ErrorResponseDTO.class);
+
+        assertEquals(error.getMessage(),
+            String.format(ParameterNotValidException.ErrorMessage.INVALID_CURSOR.getMessageTemplate(), INVALID_ID));
+    }
+
+    /*********************** search ***********************/
+
+    @DisplayName("As a user I can search the users by name prefix with a cursor")
+    @Test
+    void searchUsers() {
+        BDDMockito.given(usersService.searchUsers(eq("user"), eq(SearchMode.PREFIX), isNull(), eq(1)))
+            .willReturn(new SliceImpl<>(Collections.singletonList(user1), of(0, 1), true));
+
+        String nextCursor =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .when()
+                .get("/api/v1/users/search?name=user&mode=prefix&size=1")
+                .then().statusCode(HttpStatus.OK.value())
+                .extract()
+                .header(UsersController.NEXT_CURSOR_HEADER);
+
+        assertEquals(UserCursor.after(UserCursor.SortKey.NAME, user1), UserCursor.decode(nextCursor));
+    }
+
+    @DisplayName("As a user I get a no content when no user has the searched name")
+    @Test
+    void searchUsersButNoUsers() {
+        BDDMockito.given(usersService.searchUsers(eq(USER_NAME_1), eq(SearchMode.EXACT), isNull(), eq(20)))
+            .willReturn(new SliceImpl<>(Collections.emptyList(), of(0, 20), false));
+
+        given()
+            .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+        .when()
+            .get(String.format("/api/v1/users/search?name=%s", USER_NAME_1))
+            .then().statusCode(HttpStatus.NO_CONTENT.value());
+    }
+
+    @DisplayName("As a user I cannot search the users with an empty or a too large page")
+    @Test
+    void searchUsersWithInvalidSize() {
+        for (int size : new int[] { 0, MAX_PAGE_SIZE + 1 }) {
+            ErrorResponseDTO error =
+                given()
+                    .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+                .when()
+                    .get(String.format("/api/v1/users/search?name=user&size=%d", size))
+                    .then().statusCode(HttpStatus.BAD_REQUEST.value())
+                    .extract()
+                    .as(ErrorResponseDTO.class);
+
+            assertEquals(String.format(ParameterNotValidException.ErrorMessage.INVALID_PAGE_SIZE.getMessageTemplate(), size, MAX_PAGE_SIZE),
+                error.getMessage());
+        }
+        BDDMockito.verifyNoInteractions(usersService);
+    }
+
+    @DisplayName("As a user I cannot search the users with an unknown mode")
+    @Test
+    void searchUsersWithInvalidMode() {
+        ErrorResponseDTO error =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .when()
+                .get("/api/v1/users/search?name=user&mode=contains")
+                .then().statusCode(HttpStatus.BAD_REQUEST.value())
+                .extract()
+                .as(ErrorResponseDTO.class);
+
+        assertEquals(error.getMessage(),
+            String.format(ParameterNotValidException.ErrorMessage.INVALID_SEARCH_MODE.getMessageTemplate(), "contains"));
+    }
+
+    @DisplayName("As a user I cannot search the users with an id ordered cursor")
+    @Test
+    void searchUsersWithIdCursor() {
+        String idCursor = UserCursor.after(UserCursor.SortKey.ID, user1).encode();
+
+        given()
+            .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+        .when()
+            .get(String.format("/api/v1/users/search?name=user&after=%s", idCursor))
+            .then().statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @DisplayName("As a user I can rank the users by name similarity")
+    @Test
+    void rankUsers() {
+        BDDMockito.given(usersService.rankUsers("usr_nam", 20)).willReturn(Arrays.asList(user1, user2));
+
+        UserDTO[] users =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .when()
+                .get("/api/v1/users/search/ranked?q=usr_nam")
+                .then().statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(UserDTO[].class);
+
+        assertArrayEquals(new UserDTO[] { user1, user2 }, users);
+    }
+
+    @DisplayName("As a user I cannot rank the users with a query shorter than a trigram")
+    @Test
+    void rankUsersWithShortQuery() {
+        ErrorResponseDTO error =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+            .when()
+                .get("/api/v1/users/search/ranked?q=us")
+                .then().statusCode(HttpStatus.BAD_REQUEST.value())
+                .extract()
+                .as(ErrorResponseDTO.class);
+
+        assertEquals(error.getMessage(),
+            String.format(ParameterNotValidException.ErrorMessage.INVALID_SEARCH_QUERY.getMessageTemplate(), "us"));
+    }
+
+    @DisplayName("As a user I cannot rank the users with an empty or a too large limit")
+    @Test
+    void rankUsersWithInvalidLimit() {
+        for (int limit : new int[] { 0, -1, MAX_RANK_LIMIT + 1 }) {
+            ErrorResponseDTO error =
+                given()
+                    .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+                .when()
+                    .get(String.format("/api/v1/users/search/ranked?q=usr_nam&limit=%d", limit))
+                    .then().statusCode(HttpStatus.BAD_REQUEST.value())
+                    .extract()
+                    .as(ErrorResponseDTO.class);
+
+            assertEquals(String.format(ParameterNotValidException.ErrorMessage.INVALID_RANK_LIMIT.getMessageTemplate(), limit, MAX_RANK_LIMIT),
+                error.getMessage());
+        }
+        BDDMockito.verifyNoInteractions(usersService);
+    }
+
     /*********************** postUser ***********************/
 
     @DisplayName("As a user I can create a user")
@@ -182,7 +711,7 @@ public class UsersControllerTests {
 
         UserDTO user =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
                 .body(this.objectMapper.writeValueAsString(request))
             .when()
@@ -203,7 +732,7 @@ public class UsersControllerTests {
 
         ErrorResponseDTO error =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
                 .body(this.objectMapper.writeValueAsString(request))
             .when()
@@ -213,7 +742,42 @@ public class UsersControllerTests {
                 .as(ErrorResponseDTO.class);
 
         assertEquals(error.getMessage(),
-            String.format(ParameterNotValidException.ErrorMessage.NAME_CONTAINS_ADMIN.getMessageTemplate(), INVALID_NAME));
+            String.format(ParameterNotValidException.ErrorMessage.NAME_CONTAINS_RESERVED.getMessageTemplate(), INVALID_NAME, RESERVED_NAME));
+    }
+
+    @DisplayName("As a user I can create users in bulk and get a result for each of them")
+    @Test
+    void postUsers() throws JsonProcessingException {
+        BatchItemResultDTO created = new BatchItemResultDTO();
+        created.setIndex(0);
+        created.setStatus(BatchItemResultDTO.Status.CREATED);
+        created.setUser(user2);
+        BDDMockito.given(usersService.createUsers(Collections.singletonList(createUserDTO(null, USER_NAME_2))))
+            .willReturn(Collections.singletonList(created));
+
+        List<Map<String, String>> request = new ArrayList<>();
+        request.add(Collections.singletonMap("name", INVALID_NAME));
+        request.add(Collections.singletonMap("name", USER_NAME_2));
+
+        BatchItemResultDTO[] results =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(this.objectMapper.writeValueAsString(request))
+            .when()
+                .post("/api/v1/users/batch")
+                .then().statusCode(HttpStatus.MULTI_STATUS.value())
+                .extract()
+                .as(BatchItemResultDTO[].class);
+
+        assertEquals(2, results.length);
+        assertEquals(0, results[0].getIndex());
+        assertEquals(BatchItemResultDTO.Status.REJECTED, results[0].getStatus());
+        assertEquals(String.format(ParameterNotValidException.ErrorMessage.NAME_CONTAINS_RESERVED.getMessageTemplate(), INVALID_NAME, RESERVED_NAME),
+            results[0].getMessage());
+        assertEquals(1, results[1].getIndex());
+        assertEquals(BatchItemResultDTO.Status.CREATED, results[1].getStatus());
+        assertEquals(user2, results[1].getUser());
     }
 
     /*********************** putUser ***********************/
@@ -230,7 +794,7 @@ public class UsersControllerTests {
 
         UserDTO user =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
                 .body(this.objectMapper.writeValueAsString(request))
             .when()
@@ -252,7 +816,7 @@ public class UsersControllerTests {
 
         ErrorResponseDTO error =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
                 .body(this.objectMapper.writeValueAsString(request))
             .when()
@@ -262,7 +826,7 @@ public class UsersControllerTests {
                 .as(ErrorResponseDTO.class);
 
         assertEquals(error.getMessage(),
-            String.format(ParameterNotValidException.ErrorMessage.NAME_CONTAINS_ADMIN.getMessageTemplate(), INVALID_NAME));
+            String.format(ParameterNotValidException.ErrorMessage.NAME_CONTAINS_RESERVED.getMessageTemplate(), INVALID_NAME, RESERVED_NAME));
     }
 
     @DisplayName("As a user I cannot update a user with a non existing id")
@@ -277,7 +841,7 @@ public class UsersControllerTests {
 
         ErrorResponseDTO error =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
                 .body(this.objectMapper.writeValueAsString(request))
             .when()
@@ -289,6 +853,43 @@ public class UsersControllerTests {
         assertEquals(error.getMessage(), String.format(USER_NOT_FOUND_MSG, NON_EXISTING_ID));
     }
 
+    @DisplayName("As a user I can rename users in bulk, the invalid ones being rejected and the unknown ones reported")
+    @Test
+    void renameUsers() throws JsonProcessingException {
+        BulkResultDTO renamed = new BulkResultDTO();
+        renamed.setApplied(1);
+        BDDMockito.given(usersService.renameUsers(Collections.singletonList(createUserDTO(USER_ID_1, UPDATE_USER_NAME))))
+            .willReturn(renamed);
+
+        List<Map<String, String>> request = new ArrayList<>();
+        Map<String, String> invalid = new HashMap<>();
+        invalid.put("id", USER_ID_2);
+        invalid.put("name", INVALID_NAME);
+        request.add(invalid);
+        Map<String, String> valid = new HashMap<>();
+        valid.put("id", USER_ID_1);
+        valid.put("name", UPDATE_USER_NAME);
+        request.add(valid);
+
+        BulkResultDTO result =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(this.objectMapper.writeValueAsString(request))
+            .when()
+                .post("/api/v1/users/batch/rename")
+                .then().statusCode(HttpStatus.MULTI_STATUS.value())
+                .extract()
+                .as(BulkResultDTO.class);
+
+        assertEquals(2, result.getRequested());
+        assertEquals(1, result.getApplied());
+        assertEquals(1, result.getRejected().size());
+        assertEquals(0, result.getRejected().get(0).getIndex());
+        assertEquals(String.format(ParameterNotValidException.ErrorMessage.NAME_CONTAINS_RESERVED.getMessageTemplate(), INVALID_NAME, RESERVED_NAME),
+            result.getRejected().get(0).getMessage());
+    }
+
     /*********************** deleteUser ***********************/
 
     @DisplayName("As a user I can delete a user")
@@ -300,7 +901,7 @@ public class UsersControllerTests {
 
         UserDTO user =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
             .when()
                 .delete(String.format("/api/v1/users/%s", USER_ID_1))
                 .then().statusCode(HttpStatus.OK.value())
@@ -316,7 +917,7 @@ public class UsersControllerTests {
     void deleteUserWithInvalidId() {
         ErrorResponseDTO error =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
             .when()
                 .delete(String.format("/api/v1/users/%s", INVALID_ID))
                 .then().statusCode(HttpStatus.BAD_REQUEST.value())
@@ -334,7 +935,7 @@ public class UsersControllerTests {
 
         ErrorResponseDTO error =
             given()
-                .standaloneSetup(new UsersController(usersService), new UsersControllerAdvice())
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
             .when()
                 .delete(String.format("/api/v1/users/%s", NON_EXISTING_ID))
                 .then().statusCode(HttpStatus.NOT_FOUND.value())
@@ -343,4 +944,55 @@ public class UsersControllerTests {
 
         assertEquals(error.getMessage(), String.format(USER_NOT_FOUND_MSG, NON_EXISTING_ID));
     }
+
+    @DisplayName("As a user I can delete users in bulk from a JSON array")
+    @Test
+    void deleteUsers() throws JsonProcessingException {
+        BulkResultDTO deleted = new BulkResultDTO();
+        deleted.setApplied(2);
+        BDDMockito.given(usersService.deleteUsers(Arrays.asList(UUID.fromString(USER_ID_1), UUID.fromString(USER_ID_2))))
+            .willReturn(deleted);
+
+        BulkResultDTO result =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(this.objectMapper.writeValueAsString(Arrays.asList(USER_ID_1, USER_ID_2)))
+            .when()
+                .post("/api/v1/users/batch/delete")
+                .then().statusCode(HttpStatus.OK.value())
+                .extract()
+                .as(BulkResultDTO.class);
+
+        assertEquals(2, result.getRequested());
+        assertEquals(2, result.getApplied());
+    }
+
+    @DisplayName("As a user I can delete users in bulk from one id per line, the invalid and unknown ones being reported")
+    @Test
+    void deleteUsersFromLines() {
+        BulkResultDTO deleted = new BulkResultDTO();
+        deleted.setApplied(1);
+        deleted.getNotFound().add(UUID.fromString(NON_EXISTING_ID));
+        BDDMockito.given(usersService.deleteUsers(Arrays.asList(UUID.fromString(USER_ID_1), UUID.fromString(NON_EXISTING_ID))))
+            .willReturn(deleted);
+
+        BulkResultDTO result =
+            given()
+                .standaloneSetup(new UsersController(usersService, objectMapper, nameValidator, MAX_PAGE_SIZE, MAX_RANK_LIMIT), new UsersControllerAdvice(meterRegistry))
+                .contentType(MediaType.TEXT_PLAIN_VALUE)
+                .body(String.join("\n", USER_ID_1, INVALID_ID, "", NON_EXISTING_ID))
+            .when()
+                .post("/api/v1/users/batch/delete")
+                .then().statusCode(HttpStatus.MULTI_STATUS.value())
+                .extract()
+                .as(BulkResultDTO.class);
+
+        assertEquals(3, result.getRequested());
+        assertEquals(Collections.singletonList(UUID.fromString(NON_EXISTING_ID)), result.getNotFound());
+        assertEquals(1, result.getRejected().size());
+        assertEquals(1, result.getRejected().get(0).getIndex());
+        assertEquals(String.format(ParameterNotValidException.ErrorMessage.INVALID_UUID.getMessageTemplate(), INVALID_ID),
+            result.getRejected().get(0).getMessage());
+    }
 }
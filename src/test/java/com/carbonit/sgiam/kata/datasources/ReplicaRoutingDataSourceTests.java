@@ -0,0 +1,201 @@
+package com.carbonit.sgiam.kata.datasources;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two or three embedded databases stand for the primary and the replicas, each one knows its own name.
+ */
+public class ReplicaRoutingDataSourceTests {
+
+    private static final String UNREACHABLE_URL = "jdbc:h2:tcp://localhost:1/unreachable";
+
+    private final List<ReplicaPool> pools = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        pools.forEach(ReplicaPool::close);
+    }
+
+    /*********************** routing ***********************/
+
+    @DisplayName("The read-only transactions read from the replica")
+    @Test
+    void readOnlyOnReplica() {
+        ReplicaPool pool = route(ReplicaPool.Selection.ROUND_ROBIN, Duration.ZERO, "replica");
+
+        assertEquals("replica", readOnly.execute(status -> name()));
+        assertEquals(1, pool.healthy());
+    }
+
+    @DisplayName("The read-write transactions and the statements outside of a transaction go to the primary")
+    @Test
+    void writesOnPrimary() {
+        route(ReplicaPool.Selection.ROUND_ROBIN, Duration.ZERO, "replica");
+
+        assertEquals("primary", readWrite.execute(status -> name()));
+        assertEquals("primary", name());
+    }
+
+    @DisplayName("The read-only transactions are spread over the replicas in turn")
+    @Test
+    void roundRobin() {
+        route(ReplicaPool.Selection.ROUND_ROBIN, Duration.ZERO, "replica-0", "replica-1");
+
+        assertEquals(new HashSet<>(Arrays.asList("replica-0", "replica-1")),
+            new HashSet<>(Arrays.asList(readOnly.execute(status -> name()), readOnly.execute(status -> name()))));
+    }
+
+    @DisplayName("The read-only transactions go to the replica with the fewest connections in use")
+    @Test
+    void leastConnections() throws Exception {
+        ReplicaPool pool = route(ReplicaPool.Selection.LEAST_CONNECTIONS, Duration.ZERO, "replica-0", "replica-1");
+        ReplicaPool.Replica busy = pool.select();
+
+        try (Connection ignored = busy.dataSource.getConnection()) {
+            for (int i = 0; i < 4; i++) assertNotEquals(busy.name(), readOnly.execute(status -> name()));
+        }
+    }
+
+    /*********************** ejection ***********************/
+
+    @DisplayName("A replica failing to give a connection is ejected and its reads go to the primary")
+    @Test
+    void ejectOnFailure() {
+        ReplicaPool pool = route(ReplicaPool.Selection.ROUND_ROBIN, Duration.ZERO);
+
+        assertEquals("primary", readOnly.execute(status -> name()));
+        assertEquals(0, pool.healthy());
+    }
+
+    @DisplayName("A replica failing its health check is ejected and comes back once it passes it again")
+    @Test
+    void healthCheck() {
+        ReplicaPool pool = route(ReplicaPool.Selection.ROUND_ROBIN, Duration.ZERO, "replica");
+        ReplicaPool.Replica replica = pool.select();
+
+        replica.healthy = false;
+        assertEquals("primary", readOnly.execute(status -> name()));
+        pool.check();
+        assertEquals(1, pool.healthy());
+        assertEquals("replica", readOnly.execute(status -> name()));
+    }
+
+    /*********************** read your writes ***********************/
+
+    @DisplayName("As a user I read from the primary within the window after my write, then from the replica")
+    @Test
+    void readYourWrites() {
+        route(ReplicaPool.Selection.ROUND_ROBIN, Duration.ofMinutes(1), "replica");
+        MockHttpServletResponse response = bindRequest(new MockHttpServletRequest());
+
+        readWrite.execute(status -> name());
+        assertEquals("primary", readOnly.execute(status -> name()));
+        Cookie lastWrite = response.getCookie(ReadYourWrites.COOKIE);
+        assertNotNull(lastWrite);
+
+        MockHttpServletRequest following = new MockHttpServletRequest();
+        following.setCookies(lastWrite);
+        bindRequest(following);
+        assertEquals("primary", readOnly.execute(status -> name()));
+
+        MockHttpServletRequest late = new MockHttpServletRequest();
+        late.setCookies(new Cookie(ReadYourWrites.COOKIE, Long.toString(System.currentTimeMillis() - Duration.ofMinutes(2).toMillis())));
+        bindRequest(late);
+        assertEquals("replica", readOnly.execute(status -> name()));
+    }
+
+    @DisplayName("As another user I read from the replica right after a write that is not mine")
+    @Test
+    void readOthersWrites() {
+        route(ReplicaPool.Selection.ROUND_ROBIN, Duration.ofMinutes(1), "replica");
+        bindRequest(new MockHttpServletRequest());
+        readWrite.execute(status -> name());
+
+        bindRequest(new MockHttpServletRequest());
+        assertEquals("replica", readOnly.execute(status -> name()));
+    }
+
+    /**
+     * @param replicaNames the names of the embedded replicas, none to route to a replica that cannot be reached
+     */
+    private ReplicaPool route(final ReplicaPool.Selection selection, final Duration readYourWritesWindow,
+            final String... replicaNames) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String replicaName : replicaNames) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setJdbcUrl(database(replicaName));
+            replica.setPoolName(replicaName);
+            replicas.add(replica);
+        }
+        if (replicaNames.length == 0) {
+            HikariDataSource unreachable = new HikariDataSource();
+            unreachable.setJdbcUrl(UNREACHABLE_URL);
+            unreachable.setPoolName("unreachable");
+            replicas.add(unreachable);
+        }
+        JdbcDataSource primary = new JdbcDataSource();
+        primary.setURL(database("primary"));
+        ReplicaPool pool = new ReplicaPool(replicas, selection, Duration.ZERO);
+        pools.add(pool);
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(primary, pool, new ReadYourWrites(readYourWritesWindow)));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return pool;
+    }
+
+    /**
+     * @return the url of a new embedded database holding its name
+     */
+    private static String database(final String name) {
+        String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("create table marker (name varchar(32))");
+        template.update("insert into marker values (?)", name);
+        return url;
+    }
+
+    private String name() {
+        return jdbcTemplate.queryForObject("select name from marker", String.class);
+    }
+
+    private static MockHttpServletResponse bindRequest(final MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return response;
+    }
+}
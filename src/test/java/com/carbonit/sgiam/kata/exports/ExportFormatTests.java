@@ -0,0 +1,50 @@
+package com.carbonit.sgiam.kata.exports;
+
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static com.carbonit.sgiam.kata.utils.UserUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExportFormatTests {
+
+    private static String export(ExportFormat format, String... names) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (UserRowWriter writer = format.open(output, new JsonFactory())) {
+            writer.write(UUID.fromString(USER_ID_1), names[0]);
+            writer.write(UUID.fromString(USER_ID_2), names[1]);
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @DisplayName("Users are exported as one JSON object per line")
+    @Test
+    void exportNdjson() throws IOException {
+        String ndjson = export(ExportFormat.NDJSON, USER_NAME_1, "say \"hi\"");
+
+        assertEquals("{\"id\":\"" + USER_ID_1 + "\",\"name\":\"" + USER_NAME_1 + "\"}\n"
+            + "{\"id\":\"" + USER_ID_2 + "\",\"name\":\"say \\\"hi\\\"\"}\n", ndjson);
+    }
+
+    @DisplayName("Users are exported as csv records after a header, quoting the names that need it")
+    @Test
+    void exportCsv() throws IOException {
+        String csv = export(ExportFormat.CSV, "last, \"first\"", null);
+
+        assertEquals("id,name\r\n" + USER_ID_1 + ",\"last, \"\"first\"\"\"\r\n" + USER_ID_2 + ",\r\n", csv);
+    }
+
+    @DisplayName("An unknown export format is rejected")
+    @Test
+    void fromInvalidParameter() {
+        assertEquals(ExportFormat.CSV, ExportFormat.fromParameter("CSV"));
+        assertThrows(ParameterNotValidException.class, () -> ExportFormat.fromParameter("xml"));
+    }
+}
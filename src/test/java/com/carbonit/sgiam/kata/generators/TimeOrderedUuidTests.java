@@ -0,0 +1,43 @@
+package com.carbonit.sgiam.kata.generators;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeOrderedUuidTests {
+
+    @DisplayName("Generated ids are version 7 uuids carrying their creation time")
+    @Test
+    void versionAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuid.next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertTrue(TimeOrderedUuid.timestamp(uuid) >= before);
+        assertEquals(uuid, UUID.fromString(uuid.toString()));
+    }
+
+    @DisplayName("Generated ids are strictly increasing, even within the same millisecond")
+    @Test
+    void strictlyIncreasing() {
+        long now = System.currentTimeMillis();
+        UUID previous = TimeOrderedUuid.next(now);
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = TimeOrderedUuid.next(now);
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+            previous = next;
+        }
+    }
+
+    @DisplayName("The uuid strategy is selected by its setting value")
+    @Test
+    void strategyFromSetting() {
+        assertEquals(UuidStrategy.TIME_ORDERED, UuidStrategy.fromSetting("time-ordered"));
+        assertEquals(4, UuidStrategy.fromSetting("random").generate().version());
+        assertThrows(IllegalArgumentException.class, () -> UuidStrategy.fromSetting("sequence"));
+    }
+}
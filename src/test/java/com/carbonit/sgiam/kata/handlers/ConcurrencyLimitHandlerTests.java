@@ -0,0 +1,138 @@
+package com.carbonit.sgiam.kata.handlers;
+
+import com.carbonit.sgiam.kata.limits.GradientLimit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.undertow.Undertow;
+import io.undertow.server.HttpHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitHandlerTests {
+
+    private static final String OK = "ok";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Undertow server;
+    private int port;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop();
+    }
+
+    /**
+     * Starts a server whose requests on a single user wait for the release latch, with a limit of one request per route
+     */
+    private void start() {
+        HttpHandler handler = exchange -> {
+            if (exchange.getRequestPath().startsWith("/api/v1/users/") && !exchange.getRequestPath().endsWith("/filter")) {
+                exchange.dispatch(() -> {
+                    entered.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    exchange.getResponseSender().send(OK);
+                });
+                return;
+            }
+            exchange.getResponseSender().send(OK);
+        };
+        server = Undertow.builder()
+            .addHttpListener(0, "localhost")
+            .setHandler(new ConcurrencyLimitHandler(handler, new GradientLimit(1, 1, 1), new GradientLimit(1, 1, 1),
+                new GradientLimit(1, 1, 1), Duration.ofSeconds(2), registry))
+            .build();
+        server.start();
+        port = ((InetSocketAddress) server.getListenerInfo().get(0).getAddress()).getPort();
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    private CompletableFuture<HttpResponse<String>> getAsync(String path) {
+        return client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * The permit is released once the exchange is complete, which may be after the client got the response
+     */
+    private void awaitReleased(String route) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (registry.get("users.concurrency.in-flight").tag("route", route).gauge().value() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @DisplayName("The requests beyond the limit are rejected with a 503 and a Retry-After, and counted")
+    @Test
+    void rejectBeyondLimit() throws Exception {
+        start();
+        CompletableFuture<HttpResponse<String>> first = getAsync("/api/v1/users/1");
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        HttpResponse<String> rejected = get("/api/v1/users/2");
+
+        assertEquals(503, rejected.statusCode());
+        assertEquals("2", rejected.headers().firstValue("Retry-After").orElse(null));
+        assertTrue(rejected.body().contains("503 SERVICE_UNAVAILABLE"));
+        assertEquals(1, registry.get("users.concurrency.rejected").tag("route", "reads").counter().count());
+        assertEquals(1, registry.get("users.concurrency.in-flight").tag("route", "reads").gauge().value());
+        release.countDown();
+        assertEquals(200, first.get(10, TimeUnit.SECONDS).statusCode());
+        awaitReleased("reads");
+        assertEquals(200, get("/api/v1/users/2").statusCode());
+    }
+
+    @DisplayName("The listings have a limit of their own, and the other paths are not limited")
+    @Test
+    void separateLimits() throws Exception {
+        start();
+        CompletableFuture<HttpResponse<String>> first = getAsync("/api/v1/users/1");
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        assertEquals(200, get("/api/v1/users/filter").statusCode());
+        assertEquals(200, get("/actuator/prometheus").statusCode());
+        assertEquals(1, registry.get("users.concurrency.limit").tag("route", "lists").gauge().value());
+        release.countDown();
+        assertEquals(200, first.get(10, TimeUnit.SECONDS).statusCode());
+    }
+
+    @DisplayName("The whole table listings, exports and imports have a limit of their own, apart from the listings")
+    @Test
+    void separateStreamsLimit() throws Exception {
+        start();
+        CompletableFuture<HttpResponse<String>> export = getAsync("/api/v1/users/export");
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        assertEquals(503, get("/api/v1/users/import").statusCode());
+        assertEquals(503, get("/api/v1/users").statusCode());
+        assertEquals(200, get("/api/v1/users/filter").statusCode());
+        assertEquals(2, registry.get("users.concurrency.rejected").tag("route", "streams").counter().count());
+        assertEquals(0, registry.get("users.concurrency.rejected").tag("route", "lists").counter().count());
+        release.countDown();
+        assertEquals(200, export.get(10, TimeUnit.SECONDS).statusCode());
+    }
+}
@@ -0,0 +1,142 @@
+package com.carbonit.sgiam.kata.handlers;
+
+import io.undertow.Undertow;
+import io.undertow.server.HttpHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpsRedirectHandlerTests {
+
+    private static final String OK = "ok";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Undertow server;
+    private int port;
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private void start(HttpHandler handler) {
+        server = Undertow.builder()
+            .addHttpListener(0, "localhost")
+            .setHandler(handler)
+            .build();
+        server.start();
+        port = ((InetSocketAddress) server.getListenerInfo().get(0).getAddress()).getPort();
+    }
+
+    private static HttpHandler ok() {
+        return exchange -> exchange.getResponseSender().send(OK);
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    @DisplayName("Redirect the request to https when it is an http request, keeping the path and the query string")
+    @Test
+    void redirectToHttps() throws IOException, InterruptedException {
+        start(new HttpsRedirectHandler(ok(), 8443, "", null));
+
+        HttpResponse<String> response = get("/api/v1/users/filter?page=1&size=10");
+
+        assertEquals(302, response.statusCode());
+        assertEquals("https://localhost:8443/api/v1/users/filter?page=1&size=10",
+            response.headers().firstValue("Location").orElse(null));
+    }
+
+    @DisplayName("Redirect to the configured host, without port on the default https port")
+    @Test
+    void redirectToConfiguredHost() throws IOException, InterruptedException {
+        start(new HttpsRedirectHandler(ok(), 443, "sgiam.example", null));
+
+        HttpResponse<String> response = get("/api/v1/users");
+
+        assertEquals(302, response.statusCode());
+        assertEquals("https://sgiam.example/api/v1/users", response.headers().firstValue("Location").orElse(null));
+    }
+
+    @DisplayName("Redirect to the path as it was sent, still percent-encoded")
+    @Test
+    void redirectEncodedPath() throws IOException, InterruptedException {
+        start(new HttpsRedirectHandler(ok(), 8443, "", null));
+
+        HttpResponse<String> response = get("/api/v1/users/search/john%20doe%2Fx?mode=exact");
+
+        assertEquals(302, response.statusCode());
+        assertEquals("https://localhost:8443/api/v1/users/search/john%20doe%2Fx?mode=exact",
+            response.headers().firstValue("Location").orElse(null));
+    }
+
+    @DisplayName("Redirect to the path as it was sent when the request uri carries the host")
+    @Test
+    void redirectAbsoluteUri() throws IOException, InterruptedException {
+        start(new HttpsRedirectHandler(ok(), 8443, "", null));
+        // the requests to a proxy carry the scheme and the host in their uri
+        HttpClient proxied = HttpClient.newBuilder().proxy(ProxySelector.of(new InetSocketAddress("localhost", port))).build();
+
+        HttpResponse<String> response = proxied.send(
+            HttpRequest.newBuilder(URI.create("http://sgiam.example/api/v1/users/john%20doe%2Fx?mode=exact")).build(),
+            HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(302, response.statusCode());
+        assertEquals("https://sgiam.example:8443/api/v1/users/john%20doe%2Fx?mode=exact",
+            response.headers().firstValue("Location").orElse(null));
+    }
+
+    @DisplayName("Continue without redirection if the http request targets the actuator")
+    @Test
+    void continueActuator() throws IOException, InterruptedException {
+        start(new HttpsRedirectHandler(ok(), 8443, "", null));
+
+        HttpResponse<String> response = get("/actuator/prometheus");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(OK, response.body());
+    }
+
+    @DisplayName("Continue if the request is an https request, with the Strict-Transport-Security header when enabled")
+    @Test
+    void continueHttps() throws IOException, InterruptedException {
+        HttpHandler handler = new HttpsRedirectHandler(ok(), 8443, "", Duration.ofDays(1));
+        start(exchange -> {
+            exchange.setRequestScheme("https");
+            handler.handleRequest(exchange);
+        });
+
+        HttpResponse<String> response = get("/api/v1/users");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("max-age=86400", response.headers().firstValue("Strict-Transport-Security").orElse(null));
+    }
+
+    @DisplayName("Continue if the request is an https request, without Strict-Transport-Security header when disabled")
+    @Test
+    void continueHttpsWithoutHsts() throws IOException, InterruptedException {
+        HttpHandler handler = new HttpsRedirectHandler(ok(), 8443, "", null);
+        start(exchange -> {
+            exchange.setRequestScheme("https");
+            handler.handleRequest(exchange);
+        });
+
+        HttpResponse<String> response = get("/api/v1/users");
+
+        assertEquals(200, response.statusCode());
+        assertFalse(response.headers().firstValue("Strict-Transport-Security").isPresent());
+    }
+}
@@ -0,0 +1,59 @@
+package com.carbonit.sgiam.kata.imports;
+
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvUserRecordReaderTests {
+
+    private static final int MAX_RECORD_LENGTH = 32;
+
+    private static CsvUserRecordReader reader(String csv) throws IOException {
+        return new CsvUserRecordReader(new StringReader(csv), MAX_RECORD_LENGTH);
+    }
+
+    @DisplayName("The name column is found in the header whatever its position, the other columns are ignored")
+    @Test
+    void readNameColumn() throws IOException {
+        CsvUserRecordReader reader = reader("id,Name,email\r\n1,user_name,user@sgiam\r\n2,friendly_user,friend@sgiam");
+
+        assertEquals("user_name", reader.next().getName());
+        assertEquals("friendly_user", reader.next().getName());
+        assertNull(reader.next());
+    }
+
+    @DisplayName("Quoted fields keep their commas, doubled quotes and line breaks, blank lines are skipped")
+    @Test
+    void readQuotedFields() throws IOException {
+        CsvUserRecordReader reader = reader("name\n\n\"last, first\"\n\"the \"\"user\"\"\"\n\"two\nlines\"\n");
+
+        assertEquals("last, first", reader.next().getName());
+        assertEquals("the \"user\"", reader.next().getName());
+        assertEquals("two\nlines", reader.next().getName());
+        assertNull(reader.next());
+    }
+
+    @DisplayName("A record without name column or too long is rejected, the next records are still read")
+    @Test
+    void rejectInvalidRecords() throws IOException {
+        CsvUserRecordReader reader = reader("id,name\n1\n2," + "x".repeat(MAX_RECORD_LENGTH + 1) + "\n3,user_name\n");
+
+        assertThrows(ParameterNotValidException.class, reader::next);
+        assertThrows(ParameterNotValidException.class, reader::next);
+        assertEquals("user_name", reader.next().getName());
+    }
+
+    @DisplayName("A header without name column is rejected")
+    @Test
+    void rejectHeaderWithoutName() {
+        ParameterNotValidException e = assertThrows(ParameterNotValidException.class, () -> reader("id,email\n1,user@sgiam\n"));
+
+        assertEquals(String.format(ParameterNotValidException.ErrorMessage.INVALID_CSV_HEADER.getMessageTemplate(), "id,email"),
+            e.getMessage());
+    }
+}
@@ -0,0 +1,112 @@
+package com.carbonit.sgiam.kata.imports;
+
+import com.carbonit.sgiam.kata.dtos.BatchItemResultDTO;
+import com.carbonit.sgiam.kata.dtos.ImportReportDTO;
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import com.carbonit.sgiam.kata.services.UsersService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.NAME_CONTAINS_RESERVED;
+import static com.carbonit.sgiam.kata.utils.UserUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UsersImporterTests {
+
+    private static final Consumer<UserDTO> NO_ADMIN = user -> {
+        if (user.getName().contains(RESERVED_NAME)) throw new ParameterNotValidException(NAME_CONTAINS_RESERVED, user.getName(), RESERVED_NAME);
+    };
+
+    @Mock
+    private UsersService service;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private NdjsonUserRecordReader ndjson(String lines) {
+        return new NdjsonUserRecordReader(new StringReader(lines), objectMapper.reader(), 1024);
+    }
+
+    private static BatchItemResultDTO result(int index, BatchItemResultDTO.Status status, UserDTO user) {
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.setIndex(index);
+        result.setStatus(status);
+        result.setUser(user);
+        return result;
+    }
+
+    @DisplayName("The valid records are committed by chunks, the rejected ones are reported at their position")
+    @Test
+    void importByChunks() throws IOException {
+        UsersImporter importer = new UsersImporter(service, 2, 10);
+        List<List<UserDTO>> chunks = new ArrayList<>();
+        BDDMockito.given(service.createUsers(BDDMockito.anyList())).willAnswer(invocation -> {
+            List<UserDTO> chunk = invocation.getArgument(0);
+            chunks.add(new ArrayList<>(chunk));
+            List<BatchItemResultDTO> results = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) results.add(result(i, BatchItemResultDTO.Status.CREATED, chunk.get(i)));
+            return results;
+        });
+
+        ImportReportDTO report = importer.importUsers(ndjson(
+            "{\"name\":\"user_name\"}\n{\"name\":\"" + INVALID_NAME + "\"}\n\n{not json}\n{\"name\":\"friendly_user\"}\n{\"name\":\"new_name\"}\n"),
+            NO_ADMIN);
+
+        assertEquals(5, report.getRead());
+        assertEquals(3, report.getCreated());
+        assertEquals(2, report.getRejected());
+        assertEquals(2, report.getChunks());
+        assertEquals(2, chunks.get(0).size());
+        assertEquals(1, chunks.get(1).size());
+        assertEquals(1, report.getErrors().get(0).getIndex());
+        assertEquals(String.format(NAME_CONTAINS_RESERVED.getMessageTemplate(), INVALID_NAME, RESERVED_NAME), report.getErrors().get(0).getMessage());
+        assertEquals(2, report.getErrors().get(1).getIndex());
+        assertEquals(BatchItemResultDTO.Status.REJECTED, report.getErrors().get(1).getStatus());
+    }
+
+    @DisplayName("The failed users are reported at their record position, the reported errors being capped")
+    @Test
+    void importWithFailuresAndCappedErrors() throws IOException {
+        UsersImporter importer = new UsersImporter(service, 10, 1);
+        BDDMockito.given(service.createUsers(BDDMockito.anyList())).willAnswer(invocation -> {
+            List<UserDTO> chunk = invocation.getArgument(0);
+            List<BatchItemResultDTO> results = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) results.add(result(i, BatchItemResultDTO.Status.FAILED, chunk.get(i)));
+            return results;
+        });
+
+        ImportReportDTO report = importer.importUsers(ndjson("{\"name\":\"\"}\n{\"name\":\"user_name\"}\n{\"name\":\"friendly_user\"}"),
+            NO_ADMIN);
+
+        assertEquals(3, report.getRead());
+        assertEquals(0, report.getCreated());
+        assertEquals(1, report.getRejected());
+        assertEquals(2, report.getFailed());
+        assertEquals(1, report.getErrors().size());
+        assertEquals(0, report.getErrors().get(0).getIndex());
+    }
+
+    @DisplayName("Nothing is committed for an empty stream")
+    @Test
+    void importNothing() throws IOException {
+        UsersImporter importer = new UsersImporter(service, 10, 10);
+
+        ImportReportDTO report = importer.importUsers(ndjson(""), NO_ADMIN);
+
+        assertEquals(0, report.getRead());
+        assertEquals(0, report.getChunks());
+        BDDMockito.verifyNoInteractions(service);
+    }
+}
@@ -0,0 +1,87 @@
+package com.carbonit.sgiam.kata.limits;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GradientLimitTests {
+
+    private static final long USUAL_LATENCY = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @DisplayName("The requests beyond the limit are rejected until one is released")
+    @Test
+    void rejectBeyondLimit() {
+        GradientLimit limit = new GradientLimit(2, 1, 10);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        limit.release(USUAL_LATENCY);
+        assertTrue(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @DisplayName("The limit grows while it is reached and the latency stays as usual, up to the maximum")
+    @Test
+    void growWhileLatencyIsStable() {
+        GradientLimit limit = new GradientLimit(10, 1, 50);
+
+        for (int round = 0; round < 200; round++) saturate(limit, USUAL_LATENCY);
+
+        assertEquals(50, limit.getLimit());
+    }
+
+    @DisplayName("The limit shrinks when the latency rises, down to the minimum")
+    @Test
+    void shrinkWhenLatencyRises() {
+        GradientLimit limit = new GradientLimit(20, 2, 50);
+        for (int round = 0; round < 5; round++) saturate(limit, USUAL_LATENCY);
+        int usualLimit = limit.getLimit();
+
+        for (int round = 0; round < 20; round++) saturate(limit, 20 * USUAL_LATENCY);
+
+        assertTrue(limit.getLimit() < usualLimit / 2, "limit " + limit.getLimit() + " from " + usualLimit);
+        assertTrue(limit.getLimit() >= 2);
+    }
+
+    @DisplayName("The limit does not grow while the requests stay far below it")
+    @Test
+    void keepLimitWhenNotReached() {
+        GradientLimit limit = new GradientLimit(20, 1, 50);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(USUAL_LATENCY);
+        }
+
+        assertEquals(20, limit.getLimit());
+    }
+
+    @DisplayName("A limit whose min and max limits are equal stays fixed whatever the latency")
+    @Test
+    void fixedLimit() {
+        GradientLimit limit = new GradientLimit(4, 4, 4);
+
+        for (int round = 0; round < 20; round++) saturate(limit, (round % 2 == 0 ? 100 : 1) * USUAL_LATENCY);
+
+        assertEquals(4, limit.getLimit());
+    }
+
+    @DisplayName("An initial limit outside of the min and max limits is refused")
+    @Test
+    void refuseInconsistentLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientLimit(1, 2, 10));
+    }
+
+    /**
+     * Fills the limit then releases every request with the same latency
+     */
+    private static void saturate(final GradientLimit limit, final long latencyNanos) {
+        int acquired = 0;
+        while (limit.tryAcquire()) acquired++;
+        for (int i = 0; i < acquired; i++) limit.release(latencyNanos);
+    }
+}
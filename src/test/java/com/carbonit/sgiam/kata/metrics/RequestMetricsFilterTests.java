@@ -0,0 +1,46 @@
+package com.carbonit.sgiam.kata.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestMetricsFilterTests {
+
+    @DisplayName("The statements and entity loads of a request are recorded for its endpoint")
+    @Test
+    void recordStatementsAndLoads() throws IOException, ServletException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RequestMetricsFilter filter = new RequestMetricsFilter(registry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/users/{id}");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, resp) -> {
+            new HibernateRequestStatistics.StatementCounter().inspect("select 1");
+            new HibernateRequestStatistics.StatementCounter().inspect("select 2");
+            new HibernateRequestStatistics.EntityLoadCounter().onLoad(null, null, null, null, null);
+        });
+
+        DistributionSummary statements = registry.get("users.request.statements").tag("uri", "/api/v1/users/{id}").summary();
+        DistributionSummary loads = registry.get("users.request.entity.loads").tag("uri", "/api/v1/users/{id}").summary();
+        assertEquals(1, statements.count());
+        assertEquals(2, statements.totalAmount());
+        assertEquals(1, loads.totalAmount());
+    }
+
+    @DisplayName("Nothing is counted outside of a request")
+    @Test
+    void noCountOutsideOfARequest() {
+        new HibernateRequestStatistics.StatementCounter().inspect("select 1");
+
+        assertEquals(0, HibernateRequestStatistics.stop().getStatements());
+    }
+}
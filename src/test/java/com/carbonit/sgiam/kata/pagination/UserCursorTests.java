@@ -0,0 +1,53 @@
+package com.carbonit.sgiam.kata.pagination;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.carbonit.sgiam.kata.utils.UserUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserCursorTests {
+
+    private final UserDTO user = createUserDTO(USER_ID_1, "name:with:separators");
+
+    @DisplayName("A cursor on the id survives an encode/decode round trip")
+    @Test
+    void idCursorRoundTrip() {
+        UserCursor cursor = UserCursor.after(UserCursor.SortKey.ID, user);
+
+        UserCursor decoded = UserCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertEquals(UserCursor.SortKey.ID, decoded.getSortKey());
+        assertEquals(USER_ID_1, decoded.getId().toString());
+        assertNull(decoded.getName());
+    }
+
+    @DisplayName("A cursor on the name survives an encode/decode round trip")
+    @Test
+    void nameCursorRoundTrip() {
+        UserCursor cursor = UserCursor.after(UserCursor.SortKey.NAME, user);
+
+        UserCursor decoded = UserCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertEquals(UserCursor.SortKey.NAME, decoded.getSortKey());
+        assertEquals("name:with:separators", decoded.getName());
+    }
+
+    @DisplayName("A tampered cursor is rejected")
+    @Test
+    void invalidCursor() {
+        assertThrows(ParameterNotValidException.class, () -> UserCursor.decode(INVALID_ID));
+        assertThrows(ParameterNotValidException.class, () -> UserCursor.decode("eDp4eA"));
+    }
+
+    @DisplayName("An unknown sort key is rejected")
+    @Test
+    void invalidSortKey() {
+        assertEquals(UserCursor.SortKey.NAME, UserCursor.SortKey.fromParameter("name"));
+        assertThrows(ParameterNotValidException.class, () -> UserCursor.SortKey.fromParameter("age"));
+    }
+}
@@ -0,0 +1,166 @@
+package com.carbonit.sgiam.kata.repositories;
+
+import com.carbonit.sgiam.kata.models.User;
+import com.carbonit.sgiam.kata.search.SearchMode;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.*;
+
+import static com.carbonit.sgiam.kata.utils.UserUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class UsersRepositoryTests {
+
+    private static final Sort NAME_ORDER = Sort.by("name", "id");
+
+    @Autowired
+    private UsersRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private UUID existingId;
+
+    @BeforeEach
+    void setUp() {
+        existingId = entityManager.persistAndFlush(createUserEntity(null, USER_NAME_1)).getId();
+        entityManager.clear();
+        statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /*********************** forEachIdAndName ***********************/
+
+    @DisplayName("Every id and name is read by a single statement without loading any entity")
+    @Test
+    void forEachIdAndName() {
+        Map<UUID, String> users = new HashMap<>();
+
+        long count = repository.forEachIdAndName(users::put);
+
+        assertEquals(1, count);
+        assertEquals(Collections.singletonMap(existingId, USER_NAME_1), users);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    /*********************** updateName ***********************/
+
+    @DisplayName("Updating a user name is a single statement")
+    @Test
+    void updateName() {
+        int updated = repository.updateName(existingId, UPDATE_USER_NAME);
+
+        assertEquals(1, updated);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(UPDATE_USER_NAME, entityManager.find(User.class, existingId).getName());
+    }
+
+    @DisplayName("Updating a non existing user is a single statement updating nothing")
+    @Test
+    void updateNameOfANonExistingUser() {
+        int updated = repository.updateName(UUID.fromString(NON_EXISTING_ID), UPDATE_USER_NAME);
+
+        assertEquals(0, updated);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @DisplayName("Renaming users in bulk is one locking select and the batched updates, the non existing ones being skipped")
+    @Test
+    void renameExisting() {
+        UUID otherId = entityManager.persistAndFlush(createUserEntity(null, USER_NAME_2)).getId();
+        entityManager.clear();
+        statistics.clear();
+        Map<UUID, String> names = new HashMap<>();
+        names.put(existingId, UPDATE_USER_NAME);
+        names.put(otherId, "other_name");
+        names.put(UUID.fromString(NON_EXISTING_ID), UPDATE_USER_NAME);
+
+        Set<UUID> renamed = repository.renameExisting(names);
+
+        assertEquals(new HashSet<>(Arrays.asList(existingId, otherId)), renamed);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        User user = entityManager.find(User.class, existingId);
+        assertEquals(UPDATE_USER_NAME, user.getName());
+        assertEquals(1L, user.getVersion());
+        assertEquals("other_name", entityManager.find(User.class, otherId).getName());
+    }
+
+    /*********************** deleteUserById ***********************/
+
+    @DisplayName("Deleting a user is a single statement")
+    @Test
+    void deleteUserById() {
+        int deleted = repository.deleteUserById(existingId);
+
+        assertEquals(1, deleted);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertNull(entityManager.find(User.class, existingId));
+    }
+
+    @DisplayName("Deleting users in bulk is one locking select and one delete, the non existing ones being skipped")
+    @Test
+    void deleteExisting() {
+        Set<UUID> deleted = repository.deleteExisting(Arrays.asList(existingId, UUID.fromString(NON_EXISTING_ID)));
+
+        assertEquals(Collections.singleton(existingId), deleted);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertNull(entityManager.find(User.class, existingId));
+    }
+
+    @DisplayName("Deleting a non existing user is a single statement deleting nothing")
+    @Test
+    void deleteNonExistingUserById() {
+        int deleted = repository.deleteUserById(UUID.fromString(NON_EXISTING_ID));
+
+        assertEquals(0, deleted);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /*********************** search ***********************/
+
+    @DisplayName("Searching by prefix matches the wildcards of the prefix literally")
+    @Test
+    void findByNamePattern() {
+        entityManager.persistAndFlush(createUserEntity(null, "user%name"));
+        entityManager.persistAndFlush(createUserEntity(null, "username"));
+
+        Slice<User> users = repository.findByNamePattern(SearchMode.likePrefix("user%"), PageRequest.of(0, 10, NAME_ORDER));
+
+        assertEquals(1, users.getNumberOfElements());
+        assertEquals("user%name", users.getContent().get(0).getName());
+    }
+
+    @DisplayName("Searching by prefix after a cursor returns the next names in order")
+    @Test
+    void findByNamePatternAndIdAfter() {
+        User first = entityManager.persistAndFlush(createUserEntity(null, USER_NAME_1 + "_a"));
+        entityManager.persistAndFlush(createUserEntity(null, USER_NAME_1 + "_b"));
+
+        Slice<User> users = repository.findByNamePatternAndIdAfter(SearchMode.likePrefix(USER_NAME_1), first.getName(),
+            first.getId(), PageRequest.of(0, 10, NAME_ORDER));
+
+        assertEquals(1, users.getNumberOfElements());
+        assertEquals(USER_NAME_1 + "_b", users.getContent().get(0).getName());
+    }
+
+    @DisplayName("Searching by exact name after a cursor returns the users of that name with a greater id")
+    @Test
+    void findByNameAndIdGreaterThan() {
+        Slice<User> users = repository.findByNameAndIdGreaterThan(USER_NAME_1, existingId, PageRequest.of(0, 10, NAME_ORDER));
+
+        assertFalse(users.hasContent());
+        assertEquals(1, repository.findByName(USER_NAME_1, PageRequest.of(0, 10, NAME_ORDER)).getNumberOfElements());
+    }
+}
@@ -0,0 +1,118 @@
+package com.carbonit.sgiam.kata.search;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.repositories.UsersRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.carbonit.sgiam.kata.utils.UserUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NameTrigramIndexTests {
+
+    @Mock
+    private UsersRepository repository;
+
+    private NameTrigramIndex index;
+
+    private final UserDTO userDTO1 = createUserDTO(USER_ID_1, USER_NAME_1);
+    private final UserDTO userDTO2 = createUserDTO(USER_ID_2, USER_NAME_2);
+
+    @BeforeEach
+    void setUp() {
+        BDDMockito.given(repository.streamAll()).willReturn(Stream.of(
+            createUserEntity(USER_ID_1, USER_NAME_1), createUserEntity(USER_ID_2, USER_NAME_2)));
+        index = new NameTrigramIndex(repository, 0.3);
+        index.rebuild();
+    }
+
+    @DisplayName("As a user I find the users whose name contains the query, whatever its case")
+    @Test
+    void searchSubstring() {
+        List<UserDTO> users = index.search("USER", 10);
+
+        assertEquals(2, users.size());
+        assertTrue(users.containsAll(Arrays.asList(userDTO1, userDTO2)));
+    }
+
+    @DisplayName("As a user I find the closest name despite a typo, and not the unrelated ones")
+    @Test
+    void searchWithTypo() {
+        assertEquals(Arrays.asList(userDTO1), index.search("usr_name", 10));
+    }
+
+    @DisplayName("As a user I get the names containing the query before the ones only resembling it")
+    @Test
+    void searchRanksSubstringsFirst() {
+        UUID id = UUID.randomUUID();
+        index.put(id, "user_nane");
+
+        List<UserDTO> users = index.search("user_nam", 10);
+
+        assertEquals(userDTO1, users.get(0));
+        assertEquals(id, users.get(1).getId());
+    }
+
+    @DisplayName("As a user I get at most the requested number of users")
+    @Test
+    void searchWithLimit() {
+        assertEquals(1, index.search("user", 1).size());
+    }
+
+    @DisplayName("As a user I get no user for an empty limit, and a huge limit allocates nothing up front")
+    @Test
+    void searchWithOutOfRangeLimit() {
+        assertTrue(index.search("user", 0).isEmpty());
+        assertTrue(index.search("user", -1).isEmpty());
+        assertEquals(2, index.search("user", Integer.MAX_VALUE).size());
+    }
+
+    @DisplayName("As a user I find a renamed user by its new name only")
+    @Test
+    void putRenamesUser() {
+        index.put(UUID.fromString(USER_ID_1), UPDATE_USER_NAME);
+
+        assertEquals(Arrays.asList(userDTO2), index.search("user", 10));
+        assertEquals(Arrays.asList(createUserDTO(USER_ID_1, UPDATE_USER_NAME)), index.search("new", 10));
+        assertEquals(2, index.liveDocuments());
+    }
+
+    @DisplayName("As a user I no longer find a deleted user")
+    @Test
+    void removeUser() {
+        index.remove(UUID.fromString(USER_ID_2));
+
+        assertEquals(Arrays.asList(userDTO1), index.search("user", 10));
+        assertEquals(1, index.liveDocuments());
+    }
+
+    @DisplayName("As a user I still find the remaining users once the deleted ones have been compacted away")
+    @Test
+    void compactDeletedUsers() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            index.put(id, "bulk_" + i);
+        }
+        long footprint = index.footprint();
+        for (int i = 0; i < 2000; i++) index.remove(ids.get(i));
+
+        assertEquals(1002, index.liveDocuments());
+        assertTrue(index.footprint() < footprint);
+        assertEquals(Arrays.asList(createUserDTO(ids.get(2999).toString(), "bulk_2999")), index.search("bulk_2999", 1));
+        assertTrue(index.search("bulk_1999", 10).stream().noneMatch(user -> user.getName().equals("bulk_1999")));
+    }
+}
@@ -0,0 +1,97 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.dtos.BatchItemResultDTO;
+import com.carbonit.sgiam.kata.dtos.BulkResultDTO;
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.models.User;
+import com.carbonit.sgiam.kata.repositories.UsersRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.*;
+
+import static com.carbonit.sgiam.kata.utils.UserUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UsersBatchWriterTests {
+
+    @Mock
+    private UsersRepository repository;
+
+    @DisplayName("Users are inserted by chunks and reported in order")
+    @Test
+    void insertByChunks() {
+        UsersBatchWriter writer = new UsersBatchWriter(repository, 1);
+        BDDMockito.given(repository.insertAll(Collections.singletonList(createUserEntity(null, USER_NAME_1))))
+            .willReturn(Collections.singletonList(createUserEntity(USER_ID_1, USER_NAME_1)));
+        BDDMockito.given(repository.insertAll(Collections.singletonList(createUserEntity(null, USER_NAME_2))))
+            .willReturn(Collections.singletonList(createUserEntity(USER_ID_2, USER_NAME_2)));
+
+        List<BatchItemResultDTO> results = writer.insert(Arrays.asList(createUserDTO(null, USER_NAME_1), createUserDTO(null, USER_NAME_2)));
+
+        assertEquals(2, results.size());
+        assertEquals(0, results.get(0).getIndex());
+        assertEquals(BatchItemResultDTO.Status.CREATED, results.get(0).getStatus());
+        assertEquals(createUserDTO(USER_ID_1, USER_NAME_1), results.get(0).getUser());
+        assertEquals(1, results.get(1).getIndex());
+        assertEquals(createUserDTO(USER_ID_2, USER_NAME_2), results.get(1).getUser());
+    }
+
+    @DisplayName("A failing chunk is reported without stopping the next chunks")
+    @Test
+    void insertWithAFailingChunk() {
+        UsersBatchWriter writer = new UsersBatchWriter(repository, 1);
+        BDDMockito.given(repository.insertAll(Collections.singletonList(createUserEntity(null, USER_NAME_1))))
+            .willThrow(new DataIntegrityViolationException("duplicate"));
+        BDDMockito.given(repository.insertAll(Collections.singletonList(createUserEntity(null, USER_NAME_2))))
+            .willReturn(Collections.singletonList(createUserEntity(USER_ID_2, USER_NAME_2)));
+
+        List<BatchItemResultDTO> results = writer.insert(Arrays.asList(createUserDTO(USER_ID_1, USER_NAME_1), createUserDTO(null, USER_NAME_2)));
+
+        assertEquals(BatchItemResultDTO.Status.FAILED, results.get(0).getStatus());
+        assertEquals("duplicate", results.get(0).getMessage());
+        assertEquals(BatchItemResultDTO.Status.CREATED, results.get(1).getStatus());
+    }
+
+    @DisplayName("Distinct ids are deleted by chunks, the ones not found being reported")
+    @Test
+    void deleteByChunks() {
+        UsersBatchWriter writer = new UsersBatchWriter(repository, 2);
+        UUID id1 = UUID.fromString(USER_ID_1);
+        UUID id2 = UUID.fromString(USER_ID_2);
+        UUID nonExistingId = UUID.fromString(NON_EXISTING_ID);
+        BDDMockito.given(repository.deleteExisting(Arrays.asList(id1, nonExistingId))).willReturn(Collections.singleton(id1));
+        BDDMockito.given(repository.deleteExisting(Collections.singletonList(id2))).willReturn(Collections.singleton(id2));
+
+        BulkResultDTO result = writer.delete(Arrays.asList(id1, nonExistingId, id1, id2));
+
+        assertEquals(3, result.getRequested());
+        assertEquals(2, result.getApplied());
+        assertEquals(Collections.singletonList(nonExistingId), result.getNotFound());
+        assertTrue(result.getFailed().isEmpty());
+    }
+
+    @DisplayName("A failing rename chunk is reported without stopping the next chunks, the last name of an id winning")
+    @Test
+    void renameWithAFailingChunk() {
+        UsersBatchWriter writer = new UsersBatchWriter(repository, 1);
+        UUID id1 = UUID.fromString(USER_ID_1);
+        UUID id2 = UUID.fromString(USER_ID_2);
+        BDDMockito.given(repository.renameExisting(Collections.singletonMap(id1, UPDATE_USER_NAME)))
+            .willThrow(new DataIntegrityViolationException("too long"));
+        BDDMockito.given(repository.renameExisting(Collections.singletonMap(id2, USER_NAME_2))).willReturn(Collections.singleton(id2));
+
+        BulkResultDTO result = writer.rename(Arrays.asList(createUserDTO(USER_ID_1, USER_NAME_1), createUserDTO(USER_ID_2, USER_NAME_2),
+            createUserDTO(USER_ID_1, UPDATE_USER_NAME)));
+
+        assertEquals(1, result.getApplied());
+        assertEquals(Collections.singletonList(id1), result.getFailed());
+        assertTrue(result.getNotFound().isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.models.User;
+import com.carbonit.sgiam.kata.repositories.UsersRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.carbonit.sgiam.kata.utils.UserUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UsersGroupCommitterTests {
+
+    @Mock
+    private UsersRepository repository;
+
+    @DisplayName("Concurrent creations within the window are inserted as one batch, each caller getting its own user")
+    @Test
+    void coalesceConcurrentCreations() throws Exception {
+        BDDMockito.given(repository.insertAll(BDDMockito.anyList())).willAnswer(invocation -> {
+            List<User> inserted = new ArrayList<>();
+            for (User user : invocation.<List<User>>getArgument(0)) inserted.add(createUserEntity(UUID.randomUUID().toString(), user.getName()));
+            return inserted;
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UsersGroupCommitter committer = new UsersGroupCommitter(repository, true, Duration.ofSeconds(5), 3, 100, registry);
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            List<CompletableFuture<UserDTO>> created = new ArrayList<>();
+            for (String name : Arrays.asList(USER_NAME_1, USER_NAME_2, UPDATE_USER_NAME)) {
+                created.add(CompletableFuture.supplyAsync(() -> committer.create(createUserDTO(null, name)), callers));
+            }
+
+            assertEquals(USER_NAME_1, created.get(0).get().getName());
+            assertEquals(USER_NAME_2, created.get(1).get().getName());
+            assertEquals(UPDATE_USER_NAME, created.get(2).get().getName());
+            assertNotNull(created.get(0).get().getId());
+            BDDMockito.verify(repository).insertAll(BDDMockito.argThat(users -> users.size() == 3));
+            assertEquals(1, registry.get("users.group-commit.batch").summary().count());
+            assertEquals(3, registry.get("users.group-commit.batch").summary().totalAmount());
+        } finally {
+            callers.shutdown();
+            committer.close();
+        }
+    }
+
+    @DisplayName("A failing batch is inserted again user by user, only the failing user gets the failure")
+    @Test
+    void isolateFailures() throws InterruptedException {
+        UsersGroupCommitter committer = new UsersGroupCommitter(repository, false, Duration.ZERO, 10, 100, new SimpleMeterRegistry());
+        BDDMockito.given(repository.insertAll(BDDMockito.anyList())).willThrow(new DataIntegrityViolationException("duplicate"));
+        BDDMockito.given(repository.save(createUserEntity(null, USER_NAME_1))).willReturn(createUserEntity(USER_ID_1, USER_NAME_1));
+        BDDMockito.given(repository.save(createUserEntity(null, USER_NAME_2))).willThrow(new DataIntegrityViolationException("duplicate"));
+        UsersGroupCommitter.Pending valid = new UsersGroupCommitter.Pending(createUserEntity(null, USER_NAME_1));
+        UsersGroupCommitter.Pending invalid = new UsersGroupCommitter.Pending(createUserEntity(null, USER_NAME_2));
+
+        committer.flush(Arrays.asList(valid, invalid));
+
+        assertEquals(createUserDTO(USER_ID_1, USER_NAME_1), valid.result.join());
+        assertTrue(invalid.result.isCompletedExceptionally());
+        committer.close();
+    }
+
+    @DisplayName("Users are inserted by their caller when the group commit is disabled")
+    @Test
+    void createWhenDisabled() throws InterruptedException {
+        UsersGroupCommitter committer = new UsersGroupCommitter(repository, false, Duration.ZERO, 10, 100, new SimpleMeterRegistry());
+        BDDMockito.given(repository.save(createUserEntity(null, USER_NAME_1))).willReturn(createUserEntity(USER_ID_1, USER_NAME_1));
+
+        assertEquals(createUserDTO(USER_ID_1, USER_NAME_1), committer.create(createUserDTO(null, USER_NAME_1)));
+        BDDMockito.verify(repository, BDDMockito.never()).insertAll(BDDMockito.anyList());
+        committer.close();
+    }
+}
@@ -1,9 +1,14 @@
 package com.carbonit.sgiam.kata.services;
 
+import com.carbonit.sgiam.kata.dtos.BatchItemResultDTO;
+import com.carbonit.sgiam.kata.dtos.BulkResultDTO;
 import com.carbonit.sgiam.kata.dtos.UserDTO;
 import com.carbonit.sgiam.kata.exceptions.UserNotFoundException;
 import com.carbonit.sgiam.kata.models.User;
+import com.carbonit.sgiam.kata.pagination.UserCursor;
 import com.carbonit.sgiam.kata.repositories.UsersRepository;
+import com.carbonit.sgiam.kata.search.NameTrigramIndex;
+import com.carbonit.sgiam.kata.search.SearchMode;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,11 +16,14 @@ import org.junit.jupiter.api.function.Executable;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static com.carbonit.sgiam.kata.utils.UserUtils.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,6 +35,21 @@ public class UsersServiceImplTests {
     @Mock
     private UsersRepository repository;
 
+    @Mock
+    private UsersCounter counter;
+
+    @Mock
+    private UsersBatchWriter batchWriter;
+
+    @Mock
+    private NameTrigramIndex nameIndex;
+
+    @Mock
+    private UsersGroupCommitter groupCommitter;
+
+    @Spy
+    private UsersCache cache = new UsersCache(100, Duration.ofMinutes(1));
+
     @InjectMocks
     private UsersServiceImpl service;
 
@@ -60,12 +83,37 @@ public class UsersServiceImplTests {
         assertEquals(0, users.size());
     }
 
+    @DisplayName("As a user I can stream all users")
+    @Test
+    void streamAllUsers() {
+        BDDMockito.given(repository.streamAll()).willReturn(Stream.of(user1, user2));
+
+        List<UserDTO> users = new ArrayList<>();
+        long count = service.streamAllUsers(users::add);
+
+        assertEquals(2, count);
+        assertEquals(userDTO1, users.get(0));
+        assertEquals(userDTO2, users.get(1));
+    }
+
+    @DisplayName("As a user I stream nothing when there are no users")
+    @Test
+    void streamAllUsersButNoUsers() {
+        BDDMockito.given(repository.streamAll()).willReturn(Stream.empty());
+
+        List<UserDTO> users = new ArrayList<>();
+        long count = service.streamAllUsers(users::add);
+
+        assertEquals(0, count);
+        assertTrue(users.isEmpty());
+    }
+
     /*********************** getUserById ***********************/
 
     @DisplayName("As a user I can get a specific User by id")
     @Test
     void getUserById() throws UserNotFoundException {
-        BDDMockito.given(repository.findById(UUID.fromString(USER_ID_1))).willReturn(Optional.of(user1));
+        BDDMockito.given(repository.findOnPrimaryById(UUID.fromString(USER_ID_1))).willReturn(Optional.of(user1));
 
         UserDTO user = service.findUserById(UUID.fromString(USER_ID_1));
 
@@ -73,10 +121,71 @@ public class UsersServiceImplTests {
         assertEquals(USER_NAME_1, user.getName());
     }
 
+    @DisplayName("As a user I get a recently read user from the cache")
+    @Test
+    void getUserByIdFromCache() throws UserNotFoundException {
+        BDDMockito.given(repository.findOnPrimaryById(UUID.fromString(USER_ID_1))).willReturn(Optional.of(user1));
+
+        service.findUserById(UUID.fromString(USER_ID_1));
+        UserDTO user = service.findUserById(UUID.fromString(USER_ID_1));
+
+        BDDMockito.verify(repository, BDDMockito.times(1)).findOnPrimaryById(UUID.fromString(USER_ID_1));
+        assertEquals(userDTO1, user);
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @DisplayName("As a user I cannot get a deleted user from the cache")
+    @Test
+    void getDeletedUserById() throws UserNotFoundException {
+        BDDMockito.given(repository.findOnPrimaryById(UUID.fromString(USER_ID_1))).willReturn(Optional.of(user1), Optional.empty());
+        BDDMockito.given(repository.deleteUserById(UUID.fromString(USER_ID_1))).willReturn(1);
+
+        service.findUserById(UUID.fromString(USER_ID_1));
+        service.deleteUser(UUID.fromString(USER_ID_1));
+
+        assertThrows(UserNotFoundException.class, () -> service.findUserById(UUID.fromString(USER_ID_1)));
+    }
+
+    @DisplayName("As a user I can get the version of a user without loading it")
+    @Test
+    void findUserVersion() {
+        BDDMockito.given(repository.findVersionById(UUID.fromString(USER_ID_1))).willReturn(Optional.of(3L));
+
+        assertEquals(OptionalLong.of(3L), service.findUserVersion(UUID.fromString(USER_ID_1)));
+        BDDMockito.verify(repository, BDDMockito.never()).findOnPrimaryById(BDDMockito.any());
+    }
+
+    @DisplayName("As a user I get the version of a cached user from the cache")
+    @Test
+    void findCachedUserVersion() throws UserNotFoundException {
+        User versionedUser = createUserEntity(USER_ID_1, USER_NAME_1);
+        versionedUser.setVersion(2L);
+        BDDMockito.given(repository.findOnPrimaryById(UUID.fromString(USER_ID_1))).willReturn(Optional.of(versionedUser));
+
+        service.findUserById(UUID.fromString(USER_ID_1));
+
+        assertEquals(OptionalLong.of(2L), service.findUserVersion(UUID.fromString(USER_ID_1)));
+        BDDMockito.verify(repository, BDDMockito.never()).findVersionById(BDDMockito.any());
+    }
+
+    @DisplayName("As a user I get no version for a cached user that has none, nor for a non existing user")
+    @Test
+    void findMissingUserVersion() throws UserNotFoundException {
+        BDDMockito.given(repository.findOnPrimaryById(UUID.fromString(USER_ID_1)))
+            .willReturn(Optional.of(createUserEntity(USER_ID_1, USER_NAME_1)));
+        BDDMockito.given(repository.findVersionById(UUID.fromString(NON_EXISTING_ID))).willReturn(Optional.empty());
+
+        service.findUserById(UUID.fromString(USER_ID_1));
+
+        assertEquals(OptionalLong.empty(), service.findUserVersion(UUID.fromString(USER_ID_1)));
+        assertEquals(OptionalLong.empty(), service.findUserVersion(UUID.fromString(NON_EXISTING_ID)));
+    }
+
     @DisplayName("As a user I cannot get a user when I give a non existing id")
     @Test
     void getUserByIdWithANonExistingId() {
-        BDDMockito.given(repository.findById(UUID.fromString(NON_EXISTING_ID))).willReturn(Optional.empty());
+        BDDMockito.given(repository.findOnPrimaryById(UUID.fromString(NON_EXISTING_ID))).willReturn(Optional.empty());
 
         Executable executable = () -> {
             UserDTO user = service.findUserById(UUID.fromString(NON_EXISTING_ID));
@@ -90,23 +199,97 @@ public class UsersServiceImplTests {
     @DisplayName("As a user I can filter the users I want to get")
     @Test
     void filterUsers() {
-        BDDMockito.given(repository.findAll(of(0, 1))).willReturn(new PageImpl(new ArrayList<>(Collections.singletonList(user1))));
+        BDDMockito.given(repository.findAllBy(of(0, 1))).willReturn(new SliceImpl<>(new ArrayList<>(Collections.singletonList(user1)), of(0, 1), true));
 
-        Page<UserDTO> users = service.filterUsers(of(0, 1));
+        Slice<UserDTO> users = service.filterUsers(of(0, 1));
 
-        assertEquals(1, users.getTotalElements());
+        assertEquals(1, users.getNumberOfElements());
+        assertTrue(users.hasNext());
         assertEquals(USER_ID_1, users.getContent().get(0).getId().toString());
         assertEquals(USER_NAME_1, users.getContent().get(0).getName());
+        BDDMockito.verify(repository, BDDMockito.never()).count();
     }
 
     @DisplayName("As a user I get no users when no user satisfy the filter")
     @Test
     void filterUsersButNoUsers() {
-        BDDMockito.given(repository.findAll(of(2, 10))).willReturn(new PageImpl(new ArrayList<>()));
+        BDDMockito.given(repository.findAllBy(of(2, 10))).willReturn(new SliceImpl<>(new ArrayList<>(), of(2, 10), false));
+
+        Slice<UserDTO> users =  service.filterUsers(of(2, 10));
 
-        Page<UserDTO> users =  service.filterUsers(of(2, 10));
+        assertEquals(0, users.getNumberOfElements());
+    }
+
+    @DisplayName("As a user I can get the total number of users")
+    @Test
+    void countUsers() {
+        BDDMockito.given(counter.get()).willReturn(2L);
+
+        assertEquals(2, service.countUsers());
+    }
+
+    @DisplayName("As a user I can get the first users in id order")
+    @Test
+    void seekFirstUsers() {
+        BDDMockito.given(repository.findAllBy(of(0, 1, UserCursor.SortKey.ID.getSort())))
+            .willReturn(new SliceImpl<>(Collections.singletonList(user1), of(0, 1), true));
+
+        Slice<UserDTO> users = service.seekUsers(UserCursor.SortKey.ID, null, 1);
+
+        assertTrue(users.hasNext());
+        assertEquals(userDTO1, users.getContent().get(0));
+    }
+
+    @DisplayName("As a user I can get the users after a cursor in name order")
+    @Test
+    void seekUsersAfterName() {
+        UserCursor cursor = UserCursor.after(UserCursor.SortKey.NAME, userDTO1);
+        BDDMockito.given(repository.findByNameAndIdAfter(USER_NAME_1, UUID.fromString(USER_ID_1), of(0, 1, UserCursor.SortKey.NAME.getSort())))
+            .willReturn(new SliceImpl<>(Collections.singletonList(user2), of(0, 1), false));
+
+        Slice<UserDTO> users = service.seekUsers(UserCursor.SortKey.NAME, cursor, 1);
+
+        assertFalse(users.hasNext());
+        assertEquals(userDTO2, users.getContent().get(0));
+    }
+
+    /*********************** searchUsers ***********************/
+
+    @DisplayName("As a user I can search the users with an exact name")
+    @Test
+    void searchUsersByExactName() {
+        BDDMockito.given(repository.findByName(USER_NAME_1, of(0, 1, UserCursor.SortKey.NAME.getSort())))
+            .willReturn(new SliceImpl<>(Collections.singletonList(user1), of(0, 1), true));
+
+        Slice<UserDTO> users = service.searchUsers(USER_NAME_1, SearchMode.EXACT, null, 1);
+
+        assertTrue(users.hasNext());
+        assertEquals(userDTO1, users.getContent().get(0));
+    }
+
+    @DisplayName("As a user I can search the users after a cursor with a name prefix, its wildcards being escaped")
+    @Test
+    void searchUsersByPrefixAfterCursor() {
+        UserCursor cursor = UserCursor.after(UserCursor.SortKey.NAME, userDTO1);
+        BDDMockito.given(repository.findByNamePatternAndIdAfter("user!_%", USER_NAME_1, UUID.fromString(USER_ID_1),
+                of(0, 1, UserCursor.SortKey.NAME.getSort())))
+            .willReturn(new SliceImpl<>(Collections.singletonList(user2), of(0, 1), false));
+
+        Slice<UserDTO> users = service.searchUsers("user_", SearchMode.PREFIX, cursor, 1);
 
-        assertEquals(0, users.getTotalElements());
+        assertFalse(users.hasNext());
+        assertEquals(userDTO2, users.getContent().get(0));
+    }
+
+    @DisplayName("As a user I can rank the users by name similarity from the index")
+    @Test
+    void rankUsers() {
+        BDDMockito.given(nameIndex.search("user", 10)).willReturn(Arrays.asList(userDTO1, userDTO2));
+
+        List<UserDTO> users = service.rankUsers("user", 10);
+
+        assertEquals(Arrays.asList(userDTO1, userDTO2), users);
+        BDDMockito.verifyNoInteractions(repository);
     }
 
     /*********************** postUser ***********************/
@@ -121,23 +304,64 @@ public class UsersServiceImplTests {
 
         UserDTO user = service.createUser(userDTOToCreate);
 
+        BDDMockito.verify(counter).add(1);
+        BDDMockito.verify(nameIndex).put(UUID.fromString(USER_ID_1), USER_NAME_1);
         assertEquals(USER_ID_1, user.getId().toString());
         assertEquals(USER_NAME_1, user.getName());
     }
 
+    @DisplayName("As a user I can create a user through the group commit")
+    @Test
+    void createUserGroupCommitted() {
+        UserDTO userDTOToCreate = createUserDTO(null, USER_NAME_1);
+        BDDMockito.given(groupCommitter.isEnabled()).willReturn(true);
+        BDDMockito.given(groupCommitter.create(userDTOToCreate)).willReturn(userDTO1);
+
+        UserDTO user = service.createUser(userDTOToCreate);
+
+        BDDMockito.verify(repository, BDDMockito.never()).save(BDDMockito.any());
+        BDDMockito.verify(counter).add(1);
+        BDDMockito.verify(nameIndex).put(UUID.fromString(USER_ID_1), USER_NAME_1);
+        assertEquals(userDTO1, user);
+    }
+
+    @DisplayName("As a user I can create users in bulk")
+    @Test
+    void createUsers() {
+        List<UserDTO> userDTOsToCreate = Arrays.asList(createUserDTO(null, USER_NAME_1), createUserDTO(null, USER_NAME_2));
+        BatchItemResultDTO created = new BatchItemResultDTO();
+        created.setIndex(0);
+        created.setStatus(BatchItemResultDTO.Status.CREATED);
+        created.setUser(userDTO1);
+        BatchItemResultDTO failed = new BatchItemResultDTO();
+        failed.setIndex(1);
+        failed.setStatus(BatchItemResultDTO.Status.FAILED);
+
+        BDDMockito.given(batchWriter.insert(userDTOsToCreate)).willReturn(Arrays.asList(created, failed));
+
+        List<BatchItemResultDTO> results = service.createUsers(userDTOsToCreate);
+
+        BDDMockito.verify(counter).add(1);
+        BDDMockito.verify(nameIndex).put(UUID.fromString(USER_ID_1), USER_NAME_1);
+        BDDMockito.verifyNoMoreInteractions(nameIndex);
+        assertEquals(Arrays.asList(created, failed), results);
+    }
+
     /*********************** putUser ***********************/
 
     @DisplayName("As a user I can update a user")
     @Test
     void updateUser() throws UserNotFoundException {
         UserDTO userDTOToUpdate = createUserDTO(USER_ID_1, UPDATE_USER_NAME);
-        User userEntityToUpdate = createUserEntity(USER_ID_1, UPDATE_USER_NAME);
 
-        BDDMockito.given(repository.findById(UUID.fromString(USER_ID_1))).willReturn(Optional.of(user1));
-        BDDMockito.given(repository.save(userEntityToUpdate)).willReturn(userEntityToUpdate);
+        BDDMockito.given(repository.updateName(UUID.fromString(USER_ID_1), UPDATE_USER_NAME)).willReturn(1);
 
         UserDTO user = service.updateUser(UUID.fromString(USER_ID_1), userDTOToUpdate);
 
+        BDDMockito.verify(repository).updateName(UUID.fromString(USER_ID_1), UPDATE_USER_NAME);
+        BDDMockito.verifyNoMoreInteractions(repository);
+        BDDMockito.verify(nameIndex).put(UUID.fromString(USER_ID_1), UPDATE_USER_NAME);
+
         assertEquals(USER_ID_1, user.getId().toString());
         assertEquals(UPDATE_USER_NAME, user.getName());
     }
@@ -147,7 +371,7 @@ public class UsersServiceImplTests {
     void updateUserByIdWithANonExistingId() throws UserNotFoundException {
         UserDTO userDTOToUpdate = createUserDTO(NON_EXISTING_ID, UPDATE_USER_NAME);
 
-        BDDMockito.given(repository.findById(UUID.fromString(NON_EXISTING_ID))).willReturn(Optional.empty());
+        BDDMockito.given(repository.updateName(UUID.fromString(NON_EXISTING_ID), UPDATE_USER_NAME)).willReturn(0);
 
         Executable executable = () -> {
             UserDTO user = service.updateUser(UUID.fromString(NON_EXISTING_ID), userDTOToUpdate);
@@ -156,18 +380,36 @@ public class UsersServiceImplTests {
         assertThrows(UserNotFoundException.class, executable);
     }
 
+    @DisplayName("As a user I can rename users in bulk, the ones not found being left out of the cache and the index")
+    @Test
+    void renameUsers() {
+        List<UserDTO> userDTOsToRename = Arrays.asList(createUserDTO(USER_ID_1, UPDATE_USER_NAME), createUserDTO(NON_EXISTING_ID, UPDATE_USER_NAME));
+        BulkResultDTO renamed = new BulkResultDTO();
+        renamed.setApplied(1);
+        renamed.getNotFound().add(UUID.fromString(NON_EXISTING_ID));
+        BDDMockito.given(batchWriter.rename(userDTOsToRename)).willReturn(renamed);
+
+        BulkResultDTO result = service.renameUsers(userDTOsToRename);
+
+        assertEquals(renamed, result);
+        BDDMockito.verify(cache).invalidate(UUID.fromString(USER_ID_1));
+        BDDMockito.verify(nameIndex).put(UUID.fromString(USER_ID_1), UPDATE_USER_NAME);
+        BDDMockito.verifyNoMoreInteractions(nameIndex);
+    }
+
     /*********************** deleteUser ***********************/
 
     @DisplayName("As a user I can delete a user")
     @Test
     void deleteUser() throws UserNotFoundException {
-        BDDMockito.given(repository.findById(UUID.fromString(USER_ID_1))).willReturn(Optional.of(user1));
+        BDDMockito.given(repository.deleteUserById(UUID.fromString(USER_ID_1))).willReturn(1);
 
         UserDTO user = service.deleteUser(UUID.fromString(USER_ID_1));
 
-        BDDMockito.verify(repository).findById(UUID.fromString(USER_ID_1));
-        BDDMockito.verify(repository).delete(user1);
+        BDDMockito.verify(repository).deleteUserById(UUID.fromString(USER_ID_1));
         BDDMockito.verifyNoMoreInteractions(repository);
+        BDDMockito.verify(counter).add(-1);
+        BDDMockito.verify(nameIndex).remove(UUID.fromString(USER_ID_1));
 
         assertEquals(USER_ID_1, user.getId().toString());
         assertNull(user.getName());
@@ -176,7 +418,7 @@ public class UsersServiceImplTests {
     @DisplayName("As a user I cannot delete a user with a non existing id")
     @Test
     void deleteUserByIdWithANonExistingId() throws UserNotFoundException {
-        BDDMockito.given(repository.findById(UUID.fromString(NON_EXISTING_ID))).willReturn(Optional.empty());
+        BDDMockito.given(repository.deleteUserById(UUID.fromString(NON_EXISTING_ID))).willReturn(0);
 
         Executable executable = () -> {
             UserDTO user = service.deleteUser(UUID.fromString(NON_EXISTING_ID));
@@ -184,4 +426,21 @@ public class UsersServiceImplTests {
 
         assertThrows(UserNotFoundException.class, executable);
     }
-}
\ No newline at end of file
+
+    @DisplayName("As a user I can delete users in bulk, the counter being decreased by the deleted ones only")
+    @Test
+    void deleteUsers() {
+        List<UUID> idsToDelete = Arrays.asList(UUID.fromString(USER_ID_1), UUID.fromString(NON_EXISTING_ID));
+        BulkResultDTO deleted = new BulkResultDTO();
+        deleted.setApplied(1);
+        deleted.getNotFound().add(UUID.fromString(NON_EXISTING_ID));
+        BDDMockito.given(batchWriter.delete(idsToDelete)).willReturn(deleted);
+
+        BulkResultDTO result = service.deleteUsers(idsToDelete);
+
+        assertEquals(deleted, result);
+        BDDMockito.verify(counter).add(-1);
+        BDDMockito.verify(nameIndex).remove(UUID.fromString(USER_ID_1));
+        BDDMockito.verifyNoMoreInteractions(nameIndex);
+    }
+}
@@ -0,0 +1,136 @@
+package com.carbonit.sgiam.kata.services;
+
+import com.carbonit.sgiam.kata.dtos.UserDTO;
+import com.carbonit.sgiam.kata.exceptions.UserNotFoundException;
+import com.carbonit.sgiam.kata.pagination.UserCursor;
+import com.carbonit.sgiam.kata.search.NameTrigramIndex;
+import com.carbonit.sgiam.kata.search.SearchMode;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The service over JPA with an embedded primary and an embedded replica, the replica is written apart from the primary
+ * to tell which one answered.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=" + UsersServiceReplicasTests.PRIMARY_URL,
+    "users.datasource.replicas.enabled=true",
+    "users.datasource.replicas.urls=" + UsersServiceReplicasTests.REPLICA_URL,
+    "users.datasource.read-your-writes-window=0s"})
+public class UsersServiceReplicasTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:replicas-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL =
+        "jdbc:h2:mem:replicas-replica;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema.sql'";
+    private static final String REPLICA_NAME = "replica user";
+    private static final String PRIMARY_NAME = "primary user";
+
+    @Autowired
+    private UsersService service;
+
+    @Autowired
+    private NameTrigramIndex index;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource replicaDataSource = new JdbcDataSource();
+        replicaDataSource.setURL(REPLICA_URL);
+        replicaDataSource.setUser("sa");
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        primary.update("delete from users");
+        replica.update("delete from users");
+    }
+
+    /*********************** read-only lookups ***********************/
+
+    @DisplayName("As a user I list, seek and search the users of the replica")
+    @Test
+    void listingsOnReplica() {
+        UUID onReplica = insert(replica, UUID.randomUUID(), REPLICA_NAME);
+        insert(primary, UUID.randomUUID(), PRIMARY_NAME);
+        List<UUID> expected = Collections.singletonList(onReplica);
+
+        assertEquals(expected, ids(service.filterUsers(PageRequest.of(0, 10)).getContent()));
+        assertEquals(expected, ids(service.seekUsers(UserCursor.SortKey.NAME, null, 10).getContent()));
+        assertEquals(expected, ids(service.searchUsers(REPLICA_NAME, SearchMode.EXACT, null, 10).getContent()));
+        assertEquals(expected, ids(service.searchUsers("replica", SearchMode.PREFIX, null, 10).getContent()));
+    }
+
+    /*********************** primary lookups ***********************/
+
+    @DisplayName("As a user I get the version of a user from the primary, never the one of a lagging replica")
+    @Test
+    void versionFromPrimary() {
+        UUID onPrimary = insert(primary, UUID.randomUUID(), PRIMARY_NAME);
+        UUID onReplica = insert(replica, UUID.randomUUID(), REPLICA_NAME);
+
+        assertEquals(OptionalLong.of(0L), service.findUserVersion(onPrimary));
+        assertEquals(OptionalLong.empty(), service.findUserVersion(onReplica));
+    }
+
+    @DisplayName("As a user I find the users of the primary in the name index once rebuilt, not the ones of the replica")
+    @Test
+    void indexRebuiltFromPrimary() {
+        UUID onPrimary = insert(primary, UUID.randomUUID(), PRIMARY_NAME);
+        insert(replica, UUID.randomUUID(), REPLICA_NAME);
+
+        index.rebuild();
+
+        assertEquals(Collections.singletonList(onPrimary), ids(index.search("user", 10)));
+    }
+
+    /*********************** cache loads ***********************/
+
+    @DisplayName("As a user I get a user loaded from the primary, never the copy of a lagging replica")
+    @Test
+    void userFromPrimary() throws UserNotFoundException {
+        UUID id = insert(primary, UUID.randomUUID(), PRIMARY_NAME);
+        insert(replica, id, REPLICA_NAME);
+
+        assertEquals(PRIMARY_NAME, service.findUserById(id).getName());
+    }
+
+    @DisplayName("As a user I cannot get a deleted user that a lagging replica still has")
+    @Test
+    void deletedUserLeftOnReplica() {
+        UUID deleted = insert(replica, UUID.randomUUID(), REPLICA_NAME);
+
+        assertThrows(UserNotFoundException.class, () -> service.findUserById(deleted));
+        assertThrows(UserNotFoundException.class, () -> service.findUserById(deleted));
+    }
+
+    private static UUID insert(final JdbcTemplate database, final UUID id, final String name) {
+        byte[] bytes = ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+        database.update("insert into users (id, name, version) values (?, ?, 0)", bytes, name);
+        return id;
+    }
+
+    private static List<UUID> ids(final List<UserDTO> users) {
+        return users.stream().map(UserDTO::getId).collect(Collectors.toList());
+    }
+}
@@ -11,6 +11,7 @@ public class UserUtils {
     public static final String USER_NAME_2 = "friendly_user";
     public static final String UPDATE_USER_NAME = "new_name";
     public static final String INVALID_NAME = "admin";
+    public static final String RESERVED_NAME = "admin";
     public static final String USER_ID_1 = "eed93d8f-e053-4d75-af63-060f1f8f92d7";
     public static final String USER_ID_2 = "865fdcc4-cd19-4ab9-9f2b-5309a32c8e9e";
     public static final String INVALID_ID = "invalid_id";
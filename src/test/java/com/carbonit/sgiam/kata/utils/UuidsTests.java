@@ -0,0 +1,41 @@
+package com.carbonit.sgiam.kata.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static com.carbonit.sgiam.kata.utils.UserUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidsTests {
+
+    @DisplayName("As a user I can give an id in lower or upper case")
+    @Test
+    void parse() {
+        assertEquals(UUID.fromString(USER_ID_1), Uuids.parse(USER_ID_1));
+        assertEquals(UUID.fromString(USER_ID_1), Uuids.parse(USER_ID_1.toUpperCase()));
+    }
+
+    @DisplayName("As a user I can give an id in any form the JDK reads")
+    @Test
+    void parseLenient() {
+        assertEquals(UUID.fromString("1-1-1-1-1"), Uuids.parse("1-1-1-1-1"));
+        assertEquals(UUID.fromString("+1-+a-B-0-ffff"), Uuids.parse("+1-+a-B-0-ffff"));
+        assertEquals(UUID.fromString("123456789-12345-1-1-1234567890abc"), Uuids.parse("123456789-12345-1-1-1234567890abc"));
+        assertEquals(UUID.fromString(USER_ID_1.substring(1) + "\uff17"), Uuids.parse(USER_ID_1.substring(1) + "\uff17"));
+        assertEquals(UUID.fromString("7fffffffffffffff-0-0-0-0"), Uuids.parse("7fffffffffffffff-0-0-0-0"));
+    }
+
+    @DisplayName("As a user I cannot give an id which is not a uuid")
+    @Test
+    void parseInvalid() {
+        assertNull(Uuids.parse(null));
+        for (String invalid : new String[] { INVALID_ID, "", "1-1-1-1", "1-1-1-1-1-1", "1--1-1-1", "+-1-1-1-1", "1-1-1-1-+",
+                "-1-1-1-1", "1-1-1-1-1 ", "8000000000000000-0-0-0-0", "1-1-1-1-" + "1".repeat(28), USER_ID_1.replace('-', '_'),
+                USER_ID_1.substring(1) + "g" }) {
+            assertThrows(IllegalArgumentException.class, () -> UUID.fromString(invalid), invalid);
+            assertNull(Uuids.parse(invalid), invalid);
+        }
+    }
+}
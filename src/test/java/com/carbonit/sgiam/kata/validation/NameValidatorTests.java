@@ -0,0 +1,109 @@
+package com.carbonit.sgiam.kata.validation;
+
+import com.carbonit.sgiam.kata.exceptions.ParameterNotValidException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.carbonit.sgiam.kata.exceptions.ParameterNotValidException.ErrorMessage.NAME_CONTAINS_RESERVED;
+import static com.carbonit.sgiam.kata.utils.UserUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NameValidatorTests {
+
+    @TempDir
+    Path directory;
+
+    /*********************** automaton ***********************/
+
+    @DisplayName("As a user I cannot use a name containing any of the reserved patterns")
+    @Test
+    void findReservedPatterns() {
+        ReservedNamesAutomaton automaton = ReservedNamesAutomaton.compile(Arrays.asList("admin", "root", "system", "svc-"));
+
+        assertEquals("admin", automaton.find("the_admin_user"));
+        assertEquals("root", automaton.find("root"));
+        assertEquals("svc-", automaton.find("svc-billing"));
+        assertNull(automaton.find(USER_NAME_1));
+        assertNull(automaton.find("admi_systen"));
+    }
+
+    @DisplayName("As a user I cannot hide a reserved pattern inside a longer one that fails to match")
+    @Test
+    void findPatternsThroughFailures() {
+        ReservedNamesAutomaton automaton = ReservedNamesAutomaton.compile(Arrays.asList("abcd", "bce", "cf"));
+
+        assertEquals("bce", automaton.find("abce"));
+        assertEquals("cf", automaton.find("abcf"));
+        assertNull(automaton.find("abxd"));
+    }
+
+    @DisplayName("As a user I can use any character the reserved patterns do not use")
+    @Test
+    void findWithCharactersOutOfTheAlphabet() {
+        ReservedNamesAutomaton automaton = ReservedNamesAutomaton.compile(Collections.singletonList("root"));
+
+        assertNull(automaton.find("ro\u00f6t_\u4e2d"));
+        assertEquals("root", automaton.find("\u4e2droot"));
+    }
+
+    @DisplayName("As a user I can use any name when no pattern is reserved")
+    @Test
+    void findWithoutPatterns() {
+        ReservedNamesAutomaton automaton = ReservedNamesAutomaton.compile(Arrays.asList("", " "));
+
+        assertEquals(0, automaton.patterns());
+        assertNull(automaton.find(INVALID_NAME));
+    }
+
+    /*********************** validator ***********************/
+
+    @DisplayName("As a user I am told which reserved pattern my name contains")
+    @Test
+    void checkReservedName() throws IOException {
+        NameValidator validator = new NameValidator(new FileSystemResource(write("# comment\n\nadmin\n  root  \n")));
+
+        ParameterNotValidException e = assertThrows(ParameterNotValidException.class,
+            () -> validator.check(createUserDTO(null, "rooted")));
+        assertEquals(String.format(NAME_CONTAINS_RESERVED.getMessageTemplate(), "rooted", "root"), e.getMessage());
+        assertDoesNotThrow(() -> validator.check(createUserDTO(null, "# comment")));
+        assertEquals(2, validator.current().patterns());
+    }
+
+    @DisplayName("As an operator I can reload the reserved names without a restart")
+    @Test
+    void reload() throws IOException {
+        Path file = write(RESERVED_NAME);
+        NameValidator validator = new NameValidator(new FileSystemResource(file));
+        assertDoesNotThrow(() -> validator.check(createUserDTO(null, "system")));
+
+        Files.writeString(file, "system");
+        validator.reload();
+
+        assertThrows(ParameterNotValidException.class, () -> validator.check(createUserDTO(null, "system")));
+        assertDoesNotThrow(() -> validator.check(createUserDTO(null, INVALID_NAME)));
+    }
+
+    @DisplayName("As an operator I keep the current reserved names when the new ones cannot be read")
+    @Test
+    void reloadMissingFile() throws IOException {
+        Path file = write(RESERVED_NAME);
+        NameValidator validator = new NameValidator(new FileSystemResource(file));
+
+        Files.delete(file);
+
+        assertThrows(IOException.class, validator::reload);
+        assertThrows(ParameterNotValidException.class, () -> validator.check(createUserDTO(null, INVALID_NAME)));
+    }
+
+    private Path write(final String content) throws IOException {
+        return Files.writeString(directory.resolve("reserved-names.txt"), content);
+    }
+}